@@ -0,0 +1,54 @@
+package io.scalecube.trace.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of the library hot paths with 1, 4, 16 and 64 threads, and the publisher and
+ * CSV listener benchmarks with one thread, all with the {@code gc} profiler. Usage:
+ *
+ * <pre>
+ * mvn install -DskipTests &amp;&amp; mvn -f benchmarks/pom.xml package
+ * java -jar benchmarks/target/benchmarks.jar [hot path benchmarks regexp]
+ * </pre>
+ *
+ * <p>Plain JMH command line is available as well: {@code java -cp benchmarks/target/benchmarks.jar
+ * org.openjdk.jmh.Main -prof gc ...}.
+ */
+public class BenchmarkRunner {
+
+  private static final int[] THREADS = {1, 4, 16, 64};
+
+  private static final String HOT_PATHS =
+      LatencyReporterBenchmark.class.getSimpleName()
+          + "|"
+          + ThroughputReporterBenchmark.class.getSimpleName()
+          + "|"
+          + TraceReporterBenchmark.class.getSimpleName();
+
+  private static final String SINGLE_THREADED =
+      PublisherBenchmark.class.getSimpleName() + "|" + CsvListenerBenchmark.class.getSimpleName();
+
+  /**
+   * Main runner.
+   *
+   * @param args optional regexp of the hot path benchmarks to run
+   * @throws RunnerException on error
+   */
+  public static void main(String[] args) throws RunnerException {
+    String hotPaths = args.length > 0 ? args[0] : HOT_PATHS;
+    for (int threads : THREADS) {
+      new Runner(options(hotPaths).threads(threads).build()).run();
+    }
+    if (args.length == 0) {
+      new Runner(options(SINGLE_THREADED).threads(1).build()).run();
+    }
+  }
+
+  private static ChainedOptionsBuilder options(String include) {
+    return new OptionsBuilder().include(include).addProfiler(GCProfiler.class);
+  }
+}
@@ -0,0 +1,109 @@
+package io.scalecube.trace.benchmarks;
+
+import io.scalecube.trace.service.reporter.latency.BufferedCsvLatencyListener;
+import io.scalecube.trace.service.reporter.latency.CsvReportingLatencyListener;
+import io.scalecube.trace.service.reporter.throughput.BufferedCsvThroughputListener;
+import io.scalecube.trace.service.reporter.throughput.CsvReportingThroughputListener;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a single report of the CSV listeners, opencsv based and buffered ones. {@code
+ * System.out} is muted, the opencsv throughput listener prints every report.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvListenerBenchmark {
+
+  private File latencyFile;
+  private File throughputFile;
+  private CsvReportingLatencyListener latencyListener;
+  private CsvReportingThroughputListener throughputListener;
+  private File bufferedLatencyFile;
+  private File bufferedThroughputFile;
+  private BufferedCsvLatencyListener bufferedLatencyListener;
+  private BufferedCsvThroughputListener bufferedThroughputListener;
+  private Histogram histogram;
+  private PrintStream out;
+
+  /** Setup listeners writing to temp files. */
+  @Setup
+  public void setup() throws IOException {
+    out = System.out;
+    System.setOut(
+        new PrintStream(
+            new OutputStream() {
+              @Override
+              public void write(int b) {
+                // muted
+              }
+            }));
+    latencyFile = File.createTempFile("latency", ".csv");
+    throughputFile = File.createTempFile("throughput", ".csv");
+    latencyListener = new CsvReportingLatencyListener(latencyFile.getPath());
+    throughputListener = new CsvReportingThroughputListener(throughputFile.getPath());
+    bufferedLatencyFile = File.createTempFile("latency-buffered", ".csv");
+    bufferedThroughputFile = File.createTempFile("throughput-buffered", ".csv");
+    bufferedLatencyListener = new BufferedCsvLatencyListener(bufferedLatencyFile.getPath());
+    bufferedThroughputListener =
+        new BufferedCsvThroughputListener(bufferedThroughputFile.getPath());
+    histogram = new Histogram(TimeUnit.SECONDS.toNanos(10), 3);
+    for (int i = 0; i < 10_000; i++) {
+      histogram.recordValue(ThreadLocalRandom.current().nextLong(1_000, 1_000_000));
+    }
+  }
+
+  /** Close listeners and remove temp files. */
+  @TearDown
+  public void tearDown() throws Exception {
+    latencyListener.close();
+    throughputListener.close();
+    bufferedLatencyListener.close();
+    bufferedThroughputListener.close();
+    System.setOut(out);
+    latencyFile.delete();
+    throughputFile.delete();
+    bufferedLatencyFile.delete();
+    bufferedThroughputFile.delete();
+  }
+
+  @Benchmark
+  public void latencyOnReport() {
+    latencyListener.onReport(histogram);
+  }
+
+  @Benchmark
+  public void throughputOnReport() {
+    throughputListener.onReport(1_000_000, 128_000_000);
+  }
+
+  @Benchmark
+  public void bufferedLatencyOnReport() {
+    bufferedLatencyListener.onReport(histogram);
+  }
+
+  @Benchmark
+  public void bufferedThroughputOnReport() {
+    bufferedThroughputListener.onReport(1_000_000, 128_000_000);
+  }
+}
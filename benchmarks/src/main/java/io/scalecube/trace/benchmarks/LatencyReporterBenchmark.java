@@ -0,0 +1,70 @@
+package io.scalecube.trace.benchmarks;
+
+import io.scalecube.trace.service.reporter.capture.SampleCapture;
+import io.scalecube.trace.service.reporter.latency.LatencyReporter;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LatencyReporterBenchmark {
+
+  /**
+   * Shared {@code Recorder}, one recorder per thread, see {@link LatencyReporter#striped()}, or
+   * shared recorder plus raw sample capture, see {@link LatencyReporter#capture(SampleCapture)}.
+   */
+  @Param({"shared", "striped", "capture"})
+  private String recording;
+
+  private LatencyReporter reporter;
+  private SampleCapture capture;
+  private File captureFile;
+
+  /** Setup reporter, it is started so that interval histograms are being taken meanwhile. */
+  @Setup
+  public void setup() throws IOException {
+    reporter = LatencyReporter.create();
+    if ("striped".equals(recording)) {
+      reporter.striped();
+    }
+    if ("capture".equals(recording)) {
+      captureFile = File.createTempFile("samples", ".dat");
+      capture = new SampleCapture(captureFile.toPath(), 1 << 20);
+      reporter.capture(capture);
+    }
+    reporter.start();
+  }
+
+  /** Close reporter and capture, remove the capture file. */
+  @TearDown
+  public void tearDown() {
+    reporter.close();
+    if (capture != null) {
+      capture.close();
+      captureFile.delete();
+    }
+  }
+
+  @Benchmark
+  public void onDiff() {
+    reporter.onDiff(ThreadLocalRandom.current().nextLong(1_000, 1_000_000));
+  }
+}
@@ -0,0 +1,69 @@
+package io.scalecube.trace.benchmarks;
+
+import io.scalecube.trace.TraceReporter;
+import io.scalecube.trace.service.reporter.Publisher;
+import io.scalecube.trace.service.reporter.PublisherContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Cost of serializing a trace set the way it is published. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PublisherBenchmark {
+
+  @Param({"10", "100"})
+  private int traces;
+
+  @Param({"3600", "86400"})
+  private int points;
+
+  private TraceReporter reporter;
+  private PublisherContext context;
+  private OutputStream out;
+
+  /** Setup traces to serialize. */
+  @Setup
+  public void setup(Blackhole blackhole) {
+    context = new PublisherContext();
+    reporter = new TraceReporter();
+    for (int t = 0; t < traces; t++) {
+      for (int i = 0; i < points; i++) {
+        reporter.addY("[p99.0] trace-" + t, "latency", i * 1.5);
+      }
+    }
+    out =
+        new OutputStream() {
+          @Override
+          public void write(int b) {
+            blackhole.consume(b);
+          }
+
+          @Override
+          public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+          }
+        };
+  }
+
+  @Benchmark
+  public void serialize() throws IOException {
+    Publisher.serialize(context, reporter.traces(), out);
+  }
+}
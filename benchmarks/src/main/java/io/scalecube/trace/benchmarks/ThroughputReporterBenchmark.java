@@ -0,0 +1,41 @@
+package io.scalecube.trace.benchmarks;
+
+import io.scalecube.trace.service.reporter.throughput.ThroughputReporter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThroughputReporterBenchmark {
+
+  private ThroughputReporter reporter;
+
+  @Setup
+  public void setup() {
+    reporter = ThroughputReporter.create().start();
+  }
+
+  @TearDown
+  public void tearDown() {
+    reporter.close();
+  }
+
+  @Benchmark
+  public void onMessage() {
+    reporter.onMessage(1, 128);
+  }
+}
@@ -0,0 +1,73 @@
+package io.scalecube.trace.benchmarks;
+
+import io.scalecube.trace.TraceHandle;
+import io.scalecube.trace.TraceReporter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of appending points, the reporter is recreated every iteration so that the heap does not
+ * grow for the whole run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TraceReporterBenchmark {
+
+  private TraceReporter reporter;
+  private TraceHandle handle;
+
+  /** Setup reporter. */
+  @Setup(Level.Iteration)
+  public void setup() {
+    reporter = new TraceReporter();
+    handle = reporter.series("latency-shared", "latency");
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+
+    private String name;
+    private TraceHandle handle;
+
+    /** Setup series of this thread. */
+    @Setup(Level.Iteration)
+    public void setup(TraceReporterBenchmark benchmark) {
+      name = "latency-" + Thread.currentThread().getId();
+      handle = benchmark.reporter.series(name, "latency");
+    }
+  }
+
+  @Benchmark
+  public void addYShared() {
+    reporter.addY("latency-shared", "latency", 42.0);
+  }
+
+  @Benchmark
+  public void addY(ThreadState state) {
+    reporter.addY(state.name, "latency", 42.0);
+  }
+
+  @Benchmark
+  public void handleShared() {
+    handle.add(42.0);
+  }
+
+  @Benchmark
+  public void handle(ThreadState state) {
+    state.handle.add(42.0);
+  }
+}
@@ -0,0 +1,143 @@
+package io.scalecube.trace;
+
+import java.util.Arrays;
+
+/**
+ * On-heap {@link TracePoints} for timestamps on the x axis. Samples taken at a steady rate have
+ * nearly constant deltas, so x values are kept as zigzag varint encoded deltas of deltas, usually
+ * one byte per point instead of eight. X values are decoded sequentially, reading them in order
+ * (as the serializer does) costs O(1) per point.
+ */
+final class DeltaOfDeltaTracePoints implements TracePoints {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private byte[] xbytes;
+  private int xlength;
+  private double[] ycolumn;
+  private int size;
+  private long lastX;
+  private long lastDelta;
+
+  // decoding cursor, state after decoding cursorIndex points
+  private int cursorIndex;
+  private int cursorPosition;
+  private long cursorX;
+  private long cursorDelta;
+
+  DeltaOfDeltaTracePoints() {
+    this(INITIAL_CAPACITY);
+  }
+
+  private DeltaOfDeltaTracePoints(int capacity) {
+    xbytes = new byte[capacity];
+    ycolumn = new double[capacity];
+  }
+
+  @Override
+  public void add(long x, double y) {
+    long delta = x - lastX;
+    writeVarint(zigzag(delta - lastDelta));
+    lastX = x;
+    lastDelta = delta;
+    if (size == ycolumn.length) {
+      ycolumn = Arrays.copyOf(ycolumn, size << 1);
+    }
+    ycolumn[size++] = y;
+  }
+
+  private void writeVarint(long value) {
+    if (xlength + 10 > xbytes.length) {
+      xbytes = Arrays.copyOf(xbytes, Math.max(xbytes.length << 1, xlength + 10));
+    }
+    while ((value & ~0x7FL) != 0) {
+      xbytes[xlength++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    xbytes[xlength++] = (byte) value;
+  }
+
+  private static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unzigzag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public long xvalue(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+    }
+    if (index == size - 1) {
+      return lastX;
+    }
+    if (index < cursorIndex - 1) {
+      cursorIndex = 0;
+      cursorPosition = 0;
+      cursorX = 0;
+      cursorDelta = 0;
+    }
+    while (cursorIndex <= index) {
+      long value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = xbytes[cursorPosition++];
+        value |= (long) (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      cursorDelta += unzigzag(value);
+      cursorX += cursorDelta;
+      cursorIndex++;
+    }
+    return cursorX;
+  }
+
+  @Override
+  public double yvalue(int index) {
+    return ycolumn[index];
+  }
+
+  @Override
+  public TracePoints drain() {
+    DeltaOfDeltaTracePoints points = new DeltaOfDeltaTracePoints(0);
+    points.xbytes = xbytes;
+    points.xlength = xlength;
+    points.ycolumn = ycolumn;
+    points.size = size;
+    points.lastX = lastX;
+    points.lastDelta = lastDelta;
+    xbytes = new byte[Math.max(INITIAL_CAPACITY, xlength)];
+    ycolumn = new double[Math.max(INITIAL_CAPACITY, size)];
+    xlength = 0;
+    size = 0;
+    lastX = 0;
+    lastDelta = 0;
+    cursorIndex = 0;
+    cursorPosition = 0;
+    cursorX = 0;
+    cursorDelta = 0;
+    return points;
+  }
+
+  /**
+   * Encoded size of the x axis.
+   *
+   * @return number of bytes.
+   */
+  int encodedLength() {
+    return xlength;
+  }
+
+  @Override
+  public void close() {
+    // no-op
+  }
+}
@@ -0,0 +1,68 @@
+package io.scalecube.trace;
+
+import java.util.Arrays;
+
+/**
+ * On-heap {@link TracePoints} kept in growable primitive columns.
+ */
+final class HeapTracePoints implements TracePoints {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private long[] xcolumn;
+  private double[] ycolumn;
+  private int size;
+
+  HeapTracePoints() {
+    this(INITIAL_CAPACITY);
+  }
+
+  HeapTracePoints(int capacity) {
+    xcolumn = new long[Math.max(INITIAL_CAPACITY, capacity)];
+    ycolumn = new double[xcolumn.length];
+  }
+
+  @Override
+  public void add(long x, double y) {
+    if (size == xcolumn.length) {
+      int capacity = size << 1;
+      xcolumn = Arrays.copyOf(xcolumn, capacity);
+      ycolumn = Arrays.copyOf(ycolumn, capacity);
+    }
+    xcolumn[size] = x;
+    ycolumn[size] = y;
+    size++;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public long xvalue(int index) {
+    return xcolumn[index];
+  }
+
+  @Override
+  public double yvalue(int index) {
+    return ycolumn[index];
+  }
+
+  @Override
+  public TracePoints drain() {
+    HeapTracePoints points = new HeapTracePoints(0);
+    points.xcolumn = xcolumn;
+    points.ycolumn = ycolumn;
+    points.size = size;
+    xcolumn = new long[Math.max(INITIAL_CAPACITY, size)];
+    ycolumn = new double[xcolumn.length];
+    size = 0;
+    return points;
+  }
+
+  @Override
+  public void close() {
+    // no-op
+  }
+}
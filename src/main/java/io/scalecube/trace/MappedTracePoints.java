@@ -0,0 +1,121 @@
+package io.scalecube.trace;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import org.agrona.CloseHelper;
+import org.agrona.IoUtil;
+import reactor.core.Exceptions;
+
+/**
+ * {@link TracePoints} appended to a memory-mapped file, as fixed size {@code (long x, double y)}
+ * records. The file is mapped in segments of {@link #SEGMENT_POINTS} points, a new segment is
+ * mapped when the last one fills up. Only the segment table and the number of points are kept on
+ * heap. The file is deleted on close.
+ */
+final class MappedTracePoints implements TracePoints {
+
+  private static final int POINT_LENGTH = Long.BYTES + Double.BYTES;
+  private static final int SEGMENT_SHIFT = 16;
+  static final int SEGMENT_POINTS = 1 << SEGMENT_SHIFT;
+  private static final int SEGMENT_MASK = SEGMENT_POINTS - 1;
+
+  private final Path file;
+  private final FileChannel channel;
+  private MappedByteBuffer[] segments = new MappedByteBuffer[4];
+  private int segmentCount;
+  private int size;
+  private boolean closed;
+
+  MappedTracePoints(Path file) {
+    this.file = file;
+    try {
+      this.channel =
+          FileChannel.open(
+              file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    } catch (IOException e) {
+      throw Exceptions.propagate(e);
+    }
+  }
+
+  @Override
+  public void add(long x, double y) {
+    if (closed) {
+      throw new IllegalStateException("Trace points are closed: " + file);
+    }
+    int segment = size >>> SEGMENT_SHIFT;
+    if (segment == segmentCount) {
+      map(segment);
+    }
+    int offset = (size & SEGMENT_MASK) * POINT_LENGTH;
+    MappedByteBuffer buffer = segments[segment];
+    buffer.putLong(offset, x);
+    buffer.putDouble(offset + Long.BYTES, y);
+    size++;
+  }
+
+  private void map(int segment) {
+    if (segment == segments.length) {
+      segments = Arrays.copyOf(segments, segment << 1);
+    }
+    long length = (long) SEGMENT_POINTS * POINT_LENGTH;
+    try {
+      segments[segment] = channel.map(MapMode.READ_WRITE, segment * length, length);
+    } catch (IOException e) {
+      throw Exceptions.propagate(e);
+    }
+    segmentCount++;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public long xvalue(int index) {
+    return segments[index >>> SEGMENT_SHIFT].getLong((index & SEGMENT_MASK) * POINT_LENGTH);
+  }
+
+  @Override
+  public double yvalue(int index) {
+    return segments[index >>> SEGMENT_SHIFT].getDouble(
+        (index & SEGMENT_MASK) * POINT_LENGTH + Long.BYTES);
+  }
+
+  @Override
+  public TracePoints drain() {
+    HeapTracePoints points = new HeapTracePoints(size);
+    for (int i = 0; i < size; i++) {
+      points.add(xvalue(i), yvalue(i));
+    }
+    // mapped segments are reused from the beginning of the file
+    size = 0;
+    return points;
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    size = 0;
+    for (int i = 0; i < segmentCount; i++) {
+      IoUtil.unmap(segments[i]);
+      segments[i] = null;
+    }
+    segmentCount = 0;
+    CloseHelper.quietClose(channel);
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      // ignore
+    }
+  }
+}
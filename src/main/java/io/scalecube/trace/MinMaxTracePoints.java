@@ -0,0 +1,145 @@
+package io.scalecube.trace;
+
+/**
+ * On-heap {@link TracePoints} which keep at most a given number of points. Points are grouped into
+ * buckets of consecutive samples and each bucket keeps only its minimum and maximum, in the order
+ * they were added, so peaks and outliers survive. When the budget is reached adjacent buckets are
+ * merged and the bucket width doubles. The bucket width is kept across drains, so the published
+ * chunks have the same resolution.
+ */
+final class MinMaxTracePoints implements TracePoints {
+
+  static final int MIN_BUDGET = 4;
+
+  private final int budget;
+  private final long[] xcolumn;
+  private final double[] ycolumn;
+  // number of points (1 or 2) kept by every bucket
+  private final byte[] bucketPoints;
+  private int size;
+  private int buckets;
+  // samples taken by the last bucket, it is closed when they reach the width
+  private int lastSamples;
+  private int width = 1;
+
+  MinMaxTracePoints(int budget) {
+    if (budget < MIN_BUDGET) {
+      throw new IllegalArgumentException("budget must be at least " + MIN_BUDGET);
+    }
+    this.budget = budget;
+    // one extra slot for the sample being merged into the last bucket
+    this.xcolumn = new long[budget + 1];
+    this.ycolumn = new double[budget + 1];
+    this.bucketPoints = new byte[budget];
+  }
+
+  @Override
+  public void add(long x, double y) {
+    if (buckets == 0 || lastSamples == width) {
+      while (size + 2 > budget) {
+        compact();
+      }
+      if (buckets == 0 || lastSamples == width) {
+        bucketPoints[buckets++] = 1;
+        xcolumn[size] = x;
+        ycolumn[size] = y;
+        size++;
+        lastSamples = 1;
+        return;
+      }
+    }
+    int first = size - bucketPoints[buckets - 1];
+    int points = merge(first, size, x, y, first);
+    size = first + points;
+    bucketPoints[buckets - 1] = (byte) points;
+    lastSamples++;
+  }
+
+  /** Merge adjacent buckets pairwise and double the bucket width. */
+  private void compact() {
+    int read = 0;
+    int write = 0;
+    int merged = 0;
+    for (int i = 0; i < buckets; i += 2) {
+      int end = read + bucketPoints[i] + (i + 1 < buckets ? bucketPoints[i + 1] : 0);
+      int points = merge(read, end, write);
+      bucketPoints[merged++] = (byte) points;
+      read = end;
+      write += points;
+    }
+    if ((buckets & 1) == 0) {
+      // last bucket was merged with the full one before it
+      lastSamples += width;
+    }
+    buckets = merged;
+    size = write;
+    width <<= 1;
+  }
+
+  private int merge(int from, int to, int write) {
+    int min = from;
+    int max = from;
+    for (int i = from + 1; i < to; i++) {
+      if (ycolumn[i] < ycolumn[min]) {
+        min = i;
+      }
+      if (ycolumn[i] >= ycolumn[max]) {
+        max = i;
+      }
+    }
+    return write(min, max, write);
+  }
+
+  private int merge(int from, int to, long x, double y, int write) {
+    xcolumn[to] = x;
+    ycolumn[to] = y;
+    return merge(from, to + 1, write);
+  }
+
+  private int write(int min, int max, int write) {
+    int first = Math.min(min, max);
+    int second = Math.max(min, max);
+    final long x2 = xcolumn[second];
+    final double y2 = ycolumn[second];
+    xcolumn[write] = xcolumn[first];
+    ycolumn[write] = ycolumn[first];
+    if (first == second) {
+      return 1;
+    }
+    xcolumn[write + 1] = x2;
+    ycolumn[write + 1] = y2;
+    return 2;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public long xvalue(int index) {
+    return xcolumn[index];
+  }
+
+  @Override
+  public double yvalue(int index) {
+    return ycolumn[index];
+  }
+
+  @Override
+  public TracePoints drain() {
+    HeapTracePoints points = new HeapTracePoints(size);
+    for (int i = 0; i < size; i++) {
+      points.add(xcolumn[i], ycolumn[i]);
+    }
+    size = 0;
+    buckets = 0;
+    lastSamples = 0;
+    return points;
+  }
+
+  @Override
+  public void close() {
+    // no-op
+  }
+}
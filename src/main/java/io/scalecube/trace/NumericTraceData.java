@@ -0,0 +1,246 @@
+package io.scalecube.trace;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Trace which keeps its points in primitive {@code long} (x axis) and {@code double} (y axis)
+ * columns instead of lists of boxed values. The columns are written to json as they are. Points are
+ * kept on heap unless another {@link TraceStorage} is used.
+ *
+ * <p>Appends and reads are guarded by the monitor of the trace, so a trace can be fed by several
+ * threads. Different traces never contend with each other.
+ */
+@JsonSerialize(using = NumericTraceData.Serializer.class)
+public class NumericTraceData extends TraceData<Long, Double> {
+
+  private final TracePoints points;
+  private final boolean timeAxis;
+  private long counter;
+
+  public NumericTraceData(String name, String group) {
+    this(name, group, new HeapTracePoints());
+  }
+
+  /**
+   * Numeric tracing data information.
+   *
+   * @param name the name of the trace.
+   * @param group the group this trace take part of.
+   * @param color of the line.
+   */
+  public NumericTraceData(String name, String group, String color) {
+    super(name, group, color);
+    this.points = new HeapTracePoints();
+    this.timeAxis = false;
+  }
+
+  /**
+   * Numeric tracing data information.
+   *
+   * @param name the name of the trace.
+   * @param group the group this trace take part of.
+   * @param points storage of the points, see {@link TraceStorage}.
+   */
+  public NumericTraceData(String name, String group, TracePoints points) {
+    this(name, group, points, false);
+  }
+
+  /**
+   * Numeric tracing data information.
+   *
+   * @param name the name of the trace.
+   * @param group the group this trace take part of.
+   * @param points storage of the points, see {@link TraceStorage}.
+   * @param timeAxis whether x values are timestamps (epoch millis), written as {@link TimeFormat}.
+   */
+  public NumericTraceData(String name, String group, TracePoints points, boolean timeAxis) {
+    super(name, group);
+    this.points = points;
+    this.timeAxis = timeAxis;
+  }
+
+  /**
+   * add sample value on Y axis, x axis is auto incremented by 1.
+   *
+   * @param value to add.
+   */
+  public synchronized void addY(double value) {
+    add(++counter, value);
+  }
+
+  /**
+   * add sample point.
+   *
+   * @param x value on X axis.
+   * @param y value on Y axis.
+   */
+  public synchronized void add(long x, double y) {
+    points.add(x, y);
+  }
+
+  /**
+   * Move all points of this trace into a new on-heap trace with the same name and style. The x
+   * axis counter of this trace keeps going, so the points added later continue where the drained
+   * ones ended.
+   *
+   * @return trace with the points added since the previous drain.
+   */
+  public synchronized NumericTraceData drain() {
+    NumericTraceData chunk = new NumericTraceData(name, group, points.drain(), timeAxis);
+    chunk.hovertemplate = hovertemplate;
+    chunk.line = line;
+    chunk.type = type;
+    return chunk;
+  }
+
+  /**
+   * Append all points of another trace to this one.
+   *
+   * @param other trace to copy the points from.
+   */
+  public synchronized void addAll(NumericTraceData other) {
+    synchronized (other) {
+      for (int i = 0, n = other.points.size(); i < n; i++) {
+        add(other.points.xvalue(i), other.points.yvalue(i));
+      }
+    }
+  }
+
+  public boolean isTimeAxis() {
+    return timeAxis;
+  }
+
+  public synchronized int size() {
+    return points.size();
+  }
+
+  public synchronized long xvalue(int index) {
+    return points.xvalue(index);
+  }
+
+  public synchronized double yvalue(int index) {
+    return points.yvalue(index);
+  }
+
+  /** Release the storage of the points, e.g. unmap and delete the spill file. */
+  public synchronized void close() {
+    points.close();
+  }
+
+  /**
+   * Read-only view on Y axis, values are boxed on access.
+   *
+   * @return y axis values.
+   */
+  @Override
+  public List<Double> yaxis() {
+    return new AbstractList<Double>() {
+      @Override
+      public Double get(int index) {
+        return yvalue(index);
+      }
+
+      @Override
+      public int size() {
+        return NumericTraceData.this.size();
+      }
+    };
+  }
+
+  /**
+   * Read-only view on X axis, values are boxed on access.
+   *
+   * @return x axis values.
+   */
+  @Override
+  public List<Long> xaxis() {
+    return new AbstractList<Long>() {
+      @Override
+      public Long get(int index) {
+        return xvalue(index);
+      }
+
+      @Override
+      public int size() {
+        return NumericTraceData.this.size();
+      }
+    };
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "NumericTraceData [name="
+        + name
+        + ", line="
+        + line
+        + ", size="
+        + points.size()
+        + ", type="
+        + type
+        + "]";
+  }
+
+  static final class Serializer extends StdSerializer<NumericTraceData> {
+
+    private static final long serialVersionUID = 1L;
+
+    Serializer() {
+      super(NumericTraceData.class);
+    }
+
+    @Override
+    public void serialize(NumericTraceData trace, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+      gen.writeStartObject();
+      writeStringField(gen, "name", trace.name);
+      writeStringField(gen, "group", trace.group);
+      writeStringField(gen, "hovertemplate", trace.hovertemplate);
+      if (trace.line != null) {
+        provider.defaultSerializeField("line", trace.line, gen);
+      }
+      synchronized (trace) {
+        // element by element, so mapped points are streamed without copying them on heap
+        TracePoints points = trace.points;
+        int size = points.size();
+        TimeFormat timeFormat = trace.timeAxis ? timeFormat(provider) : TimeFormat.EPOCH_MILLIS;
+        gen.writeFieldName("x");
+        gen.writeStartArray();
+        for (int i = 0; i < size; i++) {
+          if (timeFormat == TimeFormat.ISO) {
+            gen.writeString(Instant.ofEpochMilli(points.xvalue(i)).toString());
+          } else {
+            gen.writeNumber(points.xvalue(i));
+          }
+        }
+        gen.writeEndArray();
+        gen.writeFieldName("y");
+        gen.writeStartArray();
+        for (int i = 0; i < size; i++) {
+          gen.writeNumber(points.yvalue(i));
+        }
+        gen.writeEndArray();
+      }
+      writeStringField(gen, "type", trace.type);
+      gen.writeEndObject();
+    }
+
+    private static TimeFormat timeFormat(SerializerProvider provider) {
+      Object timeFormat = provider.getAttribute(TimeFormat.ATTRIBUTE);
+      return timeFormat instanceof TimeFormat ? (TimeFormat) timeFormat : TimeFormat.ISO;
+    }
+
+    private static void writeStringField(JsonGenerator gen, String name, String value)
+        throws IOException {
+      if (value != null) {
+        gen.writeStringField(name, value);
+      }
+    }
+  }
+}
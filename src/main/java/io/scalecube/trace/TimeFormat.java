@@ -0,0 +1,19 @@
+package io.scalecube.trace;
+
+/**
+ * How the x values of time traces (epoch millis) are written to json, see {@link
+ * TraceReporter#timeSeries(String, String)}.
+ */
+public enum TimeFormat {
+
+  /**
+   * ISO-8601 instant, e.g. {@code 2021-05-01T10:15:30.250Z}.
+   */
+  ISO,
+
+  /** Number of milliseconds since the epoch. */
+  EPOCH_MILLIS;
+
+  /** Jackson attribute holding the format, ISO by default. */
+  public static final String ATTRIBUTE = TimeFormat.class.getName();
+}
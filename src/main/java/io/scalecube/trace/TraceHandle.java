@@ -0,0 +1,53 @@
+package io.scalecube.trace;
+
+/**
+ * Pre-resolved handle on a numeric trace, see {@link TraceReporter#series(String, String)}. The
+ * trace is looked up once, after that points are appended without touching the reporter maps.
+ * Handle can be shared between threads.
+ */
+public final class TraceHandle {
+
+  private final NumericTraceData trace;
+
+  TraceHandle(NumericTraceData trace) {
+    this.trace = trace;
+  }
+
+  /**
+   * add sample value on Y axis, x axis is auto incremented by 1.
+   *
+   * @param value to add.
+   */
+  public void add(double value) {
+    trace.addY(value);
+  }
+
+  /**
+   * add sample point.
+   *
+   * @param x value on X axis.
+   * @param y value on Y axis.
+   */
+  public void add(long x, double y) {
+    trace.add(x, y);
+  }
+
+  /**
+   * add sample value on Y axis, x axis is the current time in epoch millis, see {@link
+   * TraceReporter#timeSeries(String, String)}.
+   *
+   * @param value to add.
+   */
+  public void addNow(double value) {
+    trace.add(System.currentTimeMillis(), value);
+  }
+
+  public NumericTraceData trace() {
+    return trace;
+  }
+
+  @Override
+  public String toString() {
+    return "TraceHandle [trace=" + trace + "]";
+  }
+}
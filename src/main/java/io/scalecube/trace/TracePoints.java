@@ -0,0 +1,33 @@
+package io.scalecube.trace;
+
+/**
+ * Storage of the points of a {@link NumericTraceData}, see {@link TraceStorage}. Implementations
+ * are not thread-safe, the owning trace guards access to them.
+ */
+public interface TracePoints extends AutoCloseable {
+
+  /**
+   * add sample point.
+   *
+   * @param x value on X axis.
+   * @param y value on Y axis.
+   */
+  void add(long x, double y);
+
+  int size();
+
+  long xvalue(int index);
+
+  double yvalue(int index);
+
+  /**
+   * Move all points into a new on-heap storage and empty this one.
+   *
+   * @return on-heap storage with the points.
+   */
+  TracePoints drain();
+
+  /** Release resources held by this storage, the points are not accessible anymore. */
+  @Override
+  void close();
+}
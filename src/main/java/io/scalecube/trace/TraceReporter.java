@@ -9,14 +9,31 @@
 
 public class TraceReporter implements AutoCloseable {
 
-  private final ConcurrentMap<String, TraceData<Object, Object>> traces = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, TraceData<?, ?>> traces = new ConcurrentHashMap<>();
   private final ConcurrentMap<String, LongAdder> xadder = new ConcurrentHashMap<>();
   private final ConcurrentMap<String, LongAdder> yadder = new ConcurrentHashMap<>();
 
   private final Composite disposables = Disposables.composite();
+  private final TraceStorage storage;
+
+  public TraceReporter() {
+    this(TraceStorage.heap());
+  }
 
   /**
-   * get or create a trace line with a given name.
+   * Create reporter which keeps the points of numeric traces in the given storage.
+   *
+   * @param storage storage of the points, e.g. {@link TraceStorage#mapped(java.nio.file.Path)} for
+   *     runs producing more points than fit on heap.
+   */
+  public TraceReporter(TraceStorage storage) {
+    this.storage = storage;
+  }
+
+  /**
+   * get or create a trace line with a given name. The axes of a numeric trace (created by {@link
+   * #series(String, String)}, {@link #timeSeries(String, String)} or {@link #addY(String, String,
+   * double)}) are read-only views, points are appended through its {@link TraceHandle}.
    *
    * @param name of the trace.
    * @return TraceData with a given name.
@@ -25,16 +42,92 @@ public <X, Y> TraceData<X, Y> trace(String name, String group) {
     return (TraceData<X, Y>) traces.computeIfAbsent((name), c -> new TraceData<>(c, group));
   }
 
+  /**
+   * get or create a numeric trace line with a given name and return a handle on it. The handle
+   * should be kept by the caller, appending through it skips all the lookups.
+   *
+   * @param name of the trace.
+   * @param group the group this trace take part of.
+   * @return handle on the trace with a given name.
+   * @throws IllegalStateException if the trace was already created with boxed values.
+   */
+  public TraceHandle series(String name, String group) {
+    TraceData<?, ?> trace = traces.computeIfAbsent(name, c -> numericTrace(c, group));
+    if (!(trace instanceof NumericTraceData)) {
+      throw new IllegalStateException("Trace " + name + " already holds boxed values");
+    }
+    return new TraceHandle((NumericTraceData) trace);
+  }
+
+  /**
+   * get or create a numeric trace line with timestamps (epoch millis) on the x axis, e.g. added
+   * with {@link TraceHandle#addNow(double)}. Points of different traces, runs and other sources
+   * can then be aligned by time. Timestamps are written as {@link TimeFormat}.
+   *
+   * @param name of the trace.
+   * @param group the group this trace take part of.
+   * @return handle on the trace with a given name.
+   * @throws IllegalStateException if the trace was already created without timestamps.
+   */
+  public TraceHandle timeSeries(String name, String group) {
+    TraceData<?, ?> trace =
+        traces.computeIfAbsent(
+            name, c -> new NumericTraceData(c, group, storage.newTimePoints(c), true));
+    if (!(trace instanceof NumericTraceData) || !((NumericTraceData) trace).isTimeAxis()) {
+      throw new IllegalStateException("Trace " + name + " already holds values without time");
+    }
+    return new TraceHandle((NumericTraceData) trace);
+  }
+
   /**
    * add sample value on X axis y axis s auto incremented by 1.
    *
    * @param name of trace
    * @param value to add.
+   * @throws IllegalStateException if the trace is numeric and the value isn't a number.
    */
   public <X> void addY(String name, String group, X value) {
-    xadder(name).increment();
-    trace(name, group).xaxis().add(xadder(name).longValue());
-    trace(name, group).yaxis().add(value);
+    TraceData<Object, X> trace = trace(name, group);
+    if ((TraceData<?, ?>) trace instanceof NumericTraceData) {
+      if (!(value instanceof Number)) {
+        throw new IllegalStateException("Trace " + name + " holds numeric values only: " + value);
+      }
+      ((NumericTraceData) (TraceData<?, ?>) trace).addY(((Number) value).doubleValue());
+      return;
+    }
+    LongAdder adder = xadder(name);
+    synchronized (trace) {
+      adder.increment();
+      trace.xaxis().add(adder.longValue());
+      trace.yaxis().add(value);
+    }
+  }
+
+  /**
+   * add sample value on X axis y axis s auto incremented by 1, the value is kept unboxed.
+   *
+   * @param name of trace
+   * @param value to add.
+   */
+  public void addY(String name, String group, double value) {
+    TraceData<?, ?> trace = traces.computeIfAbsent(name, c -> numericTrace(c, group));
+    if (trace instanceof NumericTraceData) {
+      ((NumericTraceData) trace).addY(value);
+    } else {
+      // trace was already created with boxed values
+      addY(name, group, (Object) value);
+    }
+  }
+
+  /**
+   * add sample value on X axis y axis s auto incremented by 1, the value is kept unboxed. Y values
+   * are stored as {@code double}, so values above 2^53 (e.g. large counters) lose precision.
+   *
+   * @param name of trace
+   * @param value to add.
+   */
+  public void addY(String name, String group, long value) {
+    addY(name, group, (double) value);
   }
 
   /**
@@ -42,11 +135,23 @@ public <X> void addY(String name, String group, X value) {
    *
    * @param name of trace
    * @param value to add.
+   * @throws IllegalStateException if the trace is numeric, its x axis is an index or a timestamp.
    */
   public <Y> void addX(String name, String group, Y value) {
-    yadder(name).increment();
-    trace(name, group).yaxis().add(yadder(name).longValue());
-    trace(name, group).xaxis().add(value);
+    TraceData<Y, Object> trace = trace(name, group);
+    if ((TraceData<?, ?>) trace instanceof NumericTraceData) {
+      throw new IllegalStateException("Trace " + name + " is numeric, values are added to y axis");
+    }
+    LongAdder adder = yadder(name);
+    synchronized (trace) {
+      adder.increment();
+      trace.yaxis().add(adder.longValue());
+      trace.xaxis().add(value);
+    }
+  }
+
+  private NumericTraceData numericTrace(String name, String group) {
+    return new NumericTraceData(name, group, storage.newPoints(name));
   }
 
   /**
@@ -72,9 +177,15 @@ private LongAdder yadder(String name) {
   @Override
   public void close() {
     disposables.dispose();
+    for (TraceData<?, ?> trace : traces.values()) {
+      if (trace instanceof NumericTraceData) {
+        ((NumericTraceData) trace).close();
+      }
+    }
   }
 
+  @SuppressWarnings({"unchecked", "rawtypes"})
   public Collection<TraceData<Object, Object>> traces() {
-    return this.traces.values();
+    return (Collection) this.traces.values();
   }
 }
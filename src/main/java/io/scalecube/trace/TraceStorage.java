@@ -0,0 +1,86 @@
+package io.scalecube.trace;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import reactor.core.Exceptions;
+
+/**
+ * Creates the storage of the points of numeric traces, see {@link TraceReporter}.
+ */
+@FunctionalInterface
+public interface TraceStorage {
+
+  /**
+   * Create storage for a new trace.
+   *
+   * @param name of the trace.
+   * @return empty storage.
+   */
+  TracePoints newPoints(String name);
+
+  /**
+   * Create storage for a new trace with timestamps on the x axis, see {@link
+   * TraceReporter#timeSeries(String, String)}.
+   *
+   * @param name of the trace.
+   * @return empty storage.
+   */
+  default TracePoints newTimePoints(String name) {
+    return newPoints(name);
+  }
+
+  /**
+   * On-heap storage, the default one. Timestamps of time traces are delta-of-delta encoded.
+   *
+   * @return storage
+   */
+  static TraceStorage heap() {
+    return new TraceStorage() {
+      @Override
+      public TracePoints newPoints(String name) {
+        return new HeapTracePoints();
+      }
+
+      @Override
+      public TracePoints newTimePoints(String name) {
+        return new DeltaOfDeltaTracePoints();
+      }
+    };
+  }
+
+  /**
+   * On-heap storage which keeps at most {@code maxPoints} points per trace, however long the run
+   * is. Consecutive samples are grouped into buckets which keep only their minimum and maximum, so
+   * peaks and outliers stay visible on the chart.
+   *
+   * @param maxPoints point budget of a trace, at least 4.
+   * @return storage
+   */
+  static TraceStorage downsampled(int maxPoints) {
+    if (maxPoints < MinMaxTracePoints.MIN_BUDGET) {
+      throw new IllegalArgumentException(
+          "maxPoints must be at least " + MinMaxTracePoints.MIN_BUDGET);
+    }
+    return name -> new MinMaxTracePoints(maxPoints);
+  }
+
+  /**
+   * Storage which spills the points to memory-mapped files in the given directory, one file per
+   * trace. Heap use stays flat regardless of the number of points. Files are deleted when the
+   * reporter is closed.
+   *
+   * @param directory directory for the files.
+   * @return storage
+   */
+  static TraceStorage mapped(Path directory) {
+    return name -> {
+      try {
+        Files.createDirectories(directory);
+        return new MappedTracePoints(Files.createTempFile(directory, "trace-", ".dat"));
+      } catch (IOException e) {
+        throw Exceptions.propagate(e);
+      }
+    };
+  }
+}
@@ -0,0 +1,360 @@
+package io.scalecube.trace.junit;
+
+import io.scalecube.trace.service.reporter.PublisherContext;
+import io.scalecube.trace.service.reporter.ReportingClock;
+import io.scalecube.trace.service.reporter.latency.LatencyListener;
+import io.scalecube.trace.service.reporter.latency.LatencyListenerImpl;
+import io.scalecube.trace.service.reporter.latency.LatencyReporter;
+import io.scalecube.trace.service.reporter.throughput.ThroughputListener;
+import io.scalecube.trace.service.reporter.throughput.ThroughputListenerImpl;
+import io.scalecube.trace.service.reporter.throughput.ThroughputReporter;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.HdrHistogram.Histogram;
+import org.agrona.CloseHelper;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.jupiter.api.extension.ExtensionContext.Store.CloseableResource;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContextProvider;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+/**
+ * Runs {@link PerformanceTest} methods: warmup invocations first, then measured ones, and injects
+ * reporters into them.
+ *
+ * <p>A test method gets the same reporter in all its invocations, so the measured invocations are
+ * reported as one run. Reporters are started with the first measured invocation, which discards
+ * the samples of the warmup invocations, and closed after the last one, reporting the last partial
+ * interval. Reporters don't warm up on their own, the warmup invocations do. All reporters are
+ * sampled by {@link ReportingClock#defaultInstance()}, so there is no timer per test.
+ *
+ * <p>The traces of all the test methods of a class are kept together and published once, after
+ * the last test of the class. {@link PublisherContext} is filled from the environment variables
+ * {@code OWNER}, {@code REPO}, {@code COMMIT_ID} and {@code TRACE_REPORT_URL} (or {@code
+ * -Dtrace.report.url}). Results are published only if {@code TRACE_REPORT} is {@code true} (or
+ * {@code -Dtrace.report=true}), otherwise they are discarded with the class.
+ */
+public final class PerformanceExtension implements TestTemplateInvocationContextProvider {
+
+  private static final Namespace NAMESPACE = Namespace.create(PerformanceExtension.class);
+
+  @Override
+  public boolean supportsTestTemplate(ExtensionContext context) {
+    return context
+        .getTestMethod()
+        .map(method -> AnnotationSupport.isAnnotated(method, PerformanceTest.class))
+        .orElse(false);
+  }
+
+  @Override
+  public Stream<TestTemplateInvocationContext> provideTestTemplateInvocationContexts(
+      ExtensionContext context) {
+    Method method = context.getRequiredTestMethod();
+    PerformanceTest test =
+        AnnotationSupport.findAnnotation(method, PerformanceTest.class)
+            .orElseThrow(() -> new IllegalStateException("Not a performance test: " + method));
+    if (test.warmupIterations() < 0 || test.iterations() < 1) {
+      throw new IllegalArgumentException("Invalid iterations of performance test: " + method);
+    }
+    return IntStream.range(0, test.warmupIterations() + test.iterations())
+        .mapToObj(i -> new Invocation(test, i));
+  }
+
+  private static boolean publishingEnabled() {
+    return "true".equals(System.getenv("TRACE_REPORT")) || Boolean.getBoolean("trace.report");
+  }
+
+  private static PublisherContext fromEnvironment(PublisherContext context) {
+    PublisherContext result = context;
+    result = withEnv(result, "OWNER", result::owner);
+    result = withEnv(result, "REPO", result::repo);
+    result = withEnv(result, "COMMIT_ID", result::commitId);
+    String url = System.getenv("TRACE_REPORT_URL");
+    if (url == null) {
+      url = System.getProperty("trace.report.url");
+    }
+    return url != null ? result.traceReportUrl(url) : result;
+  }
+
+  private static PublisherContext withEnv(
+      PublisherContext context, String name, Function<String, PublisherContext> setter) {
+    String value = System.getenv(name);
+    return value != null ? setter.apply(value) : context;
+  }
+
+  private static final class Invocation implements TestTemplateInvocationContext {
+
+    private final PerformanceTest test;
+    private final int index;
+
+    private Invocation(PerformanceTest test, int index) {
+      this.test = test;
+      this.index = index;
+    }
+
+    private boolean isWarmup() {
+      return index < test.warmupIterations();
+    }
+
+    @Override
+    public String getDisplayName(int invocationIndex) {
+      return isWarmup()
+          ? "warmup " + (index + 1) + "/" + test.warmupIterations()
+          : "iteration " + (index - test.warmupIterations() + 1) + "/" + test.iterations();
+    }
+
+    @Override
+    public List<Extension> getAdditionalExtensions() {
+      return Collections.singletonList(new Iteration(test, isWarmup()));
+    }
+  }
+
+  private static final class Iteration implements ParameterResolver, BeforeTestExecutionCallback {
+
+    private final PerformanceTest test;
+    private final boolean warmup;
+
+    private Iteration(PerformanceTest test, boolean warmup) {
+      this.test = test;
+      this.warmup = warmup;
+    }
+
+    @Override
+    public boolean supportsParameter(
+        ParameterContext parameterContext, ExtensionContext extensionContext) {
+      Class<?> type = parameterContext.getParameter().getType();
+      return type == LatencyReporter.class || type == ThroughputReporter.class;
+    }
+
+    @Override
+    public Object resolveParameter(
+        ParameterContext parameterContext, ExtensionContext extensionContext) {
+      MethodResults results = methodResults(extensionContext);
+      return parameterContext.getParameter().getType() == LatencyReporter.class
+          ? results.latency()
+          : results.throughput();
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+      if (!warmup) {
+        methodResults(context).start();
+      }
+    }
+
+    private MethodResults methodResults(ExtensionContext invocationContext) {
+      // parent of the invocation is the test method, its parent is the test class
+      ExtensionContext methodContext = invocationContext.getParent().orElse(invocationContext);
+      ExtensionContext classContext = methodContext.getParent().orElse(methodContext);
+      // keyed by the class, stores fall back to the parent ones, e.g. of an enclosing class
+      ClassResults classResults =
+          classContext
+              .getStore(NAMESPACE)
+              .getOrComputeIfAbsent(
+                  classContext.getRequiredTestClass(), k -> new ClassResults(), ClassResults.class);
+      String name =
+          test.name().isEmpty()
+              ? methodContext.getRequiredTestClass().getSimpleName()
+                  + "."
+                  + methodContext.getRequiredTestMethod().getName()
+              : test.name();
+      return methodContext
+          .getStore(NAMESPACE)
+          .getOrComputeIfAbsent(
+              MethodResults.class, k -> new MethodResults(classResults, name), MethodResults.class);
+    }
+  }
+
+  /**
+   * Listeners of a test class, they keep the traces of all its methods.
+   */
+  private static final class ClassResults implements CloseableResource {
+
+    private final LatencyListenerImpl latencyListener =
+        new LatencyListenerImpl().publisher(PerformanceExtension::fromEnvironment);
+    private final ThroughputListenerImpl throughputListener =
+        new ThroughputListenerImpl().publisher(PerformanceExtension::fromEnvironment);
+    private boolean used;
+
+    private synchronized LatencyListener latencyListener(String testName) {
+      used = true;
+      // clones share the traces of the class listener, which publishes them
+      return new SharedLatencyListener(latencyListener.publisher(c -> c.testName(testName)));
+    }
+
+    private synchronized ThroughputListener throughputListener(String testName) {
+      used = true;
+      return new SharedThroughputListener(throughputListener.publisher(c -> c.testName(testName)));
+    }
+
+    @Override
+    public synchronized void close() {
+      if (!used) {
+        return;
+      }
+      if (publishingEnabled()) {
+        latencyListener.close();
+        throughputListener.close();
+      } else {
+        latencyListener.discard();
+        throughputListener.discard();
+      }
+    }
+  }
+
+  /**
+   * Reporters of a test method.
+   */
+  private static final class MethodResults implements CloseableResource {
+
+    private final ClassResults classResults;
+    private final String name;
+    private LatencyReporter latency;
+    private ThroughputReporter throughput;
+    private boolean started;
+
+    private MethodResults(ClassResults classResults, String name) {
+      this.classResults = classResults;
+      this.name = name;
+    }
+
+    private synchronized LatencyReporter latency() {
+      if (latency == null) {
+        latency =
+            LatencyReporter.create(classResults.latencyListener(name))
+                .warmupIterations(0)
+                .clock(ReportingClock.defaultInstance());
+        if (started) {
+          latency.start();
+        }
+      }
+      return latency;
+    }
+
+    private synchronized ThroughputReporter throughput() {
+      if (throughput == null) {
+        throughput =
+            ThroughputReporter.create(classResults.throughputListener(name))
+                .warmupIterations(0)
+                .clock(ReportingClock.defaultInstance());
+        if (started) {
+          throughput.start();
+        }
+      }
+      return throughput;
+    }
+
+    private synchronized void start() {
+      if (!started) {
+        started = true;
+        if (latency != null) {
+          latency.start();
+        }
+        if (throughput != null) {
+          throughput.start();
+        }
+      }
+    }
+
+    @Override
+    public synchronized void close() {
+      if (started) {
+        if (latency != null) {
+          latency.report();
+        }
+        if (throughput != null) {
+          throughput.report();
+        }
+      }
+      CloseHelper.quietCloseAll(latency, throughput);
+    }
+  }
+
+  /**
+   * Forwards to a listener of the class, which is closed with the class, not with the reporter.
+   */
+  private static final class SharedLatencyListener implements LatencyListener {
+
+    private final LatencyListener delegate;
+
+    private SharedLatencyListener(LatencyListener delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void onReport(Histogram intervalHistogram) {
+      delegate.onReport(intervalHistogram);
+    }
+
+    @Override
+    public void onReport(long timestamp, Histogram intervalHistogram) {
+      delegate.onReport(timestamp, intervalHistogram);
+    }
+
+    @Override
+    public void onCorrectedReport(Histogram correctedIntervalHistogram) {
+      delegate.onCorrectedReport(correctedIntervalHistogram);
+    }
+
+    @Override
+    public void onCorrectedReport(long timestamp, Histogram correctedIntervalHistogram) {
+      delegate.onCorrectedReport(timestamp, correctedIntervalHistogram);
+    }
+
+    @Override
+    public void onStageReport(String stage, Histogram intervalHistogram) {
+      delegate.onStageReport(stage, intervalHistogram);
+    }
+
+    @Override
+    public void onStageReport(long timestamp, String stage, Histogram intervalHistogram) {
+      delegate.onStageReport(timestamp, stage, intervalHistogram);
+    }
+
+    @Override
+    public void onTerminate(Histogram accumulatedHistogram) {
+      delegate.onTerminate(accumulatedHistogram);
+    }
+
+    @Override
+    public void close() {
+      // closed with the test class
+    }
+  }
+
+  /**
+   * Forwards to a listener of the class, which is closed with the class, not with the reporter.
+   */
+  private static final class SharedThroughputListener implements ThroughputListener {
+
+    private final ThroughputListener delegate;
+
+    private SharedThroughputListener(ThroughputListener delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void onReport(double messagesPerSec, double bytesPerSec) {
+      delegate.onReport(messagesPerSec, bytesPerSec);
+    }
+
+    @Override
+    public void onReport(long timestamp, double messagesPerSec, double bytesPerSec) {
+      delegate.onReport(timestamp, messagesPerSec, bytesPerSec);
+    }
+
+    @Override
+    public void close() {
+      // closed with the test class
+    }
+  }
+}
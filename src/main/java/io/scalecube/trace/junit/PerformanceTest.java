@@ -0,0 +1,53 @@
+package io.scalecube.trace.junit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Performance test method, run {@link #warmupIterations()} times and then {@link #iterations()}
+ * times. Parameters of type {@link io.scalecube.trace.service.reporter.latency.LatencyReporter}
+ * and {@link io.scalecube.trace.service.reporter.throughput.ThroughputReporter} are injected, see
+ * {@link PerformanceExtension}.
+ *
+ * <pre>{@code
+ * @PerformanceTest(iterations = 10)
+ * void requestResponse(LatencyReporter latency) {
+ *   long start = System.nanoTime();
+ *   service.requestResponse(request).block();
+ *   latency.onDiff(System.nanoTime() - start);
+ * }
+ * }</pre>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@TestTemplate
+@ExtendWith(PerformanceExtension.class)
+public @interface PerformanceTest {
+
+  /**
+   * Number of warmup invocations, their samples are not reported.
+   *
+   * @return warmup iterations
+   */
+  int warmupIterations() default 1;
+
+  /**
+   * Number of measured invocations, their samples are reported as one run.
+   *
+   * @return measurement iterations
+   */
+  int iterations() default 5;
+
+  /**
+   * Test name of the traces, {@code <simple class name>.<method name>} by default.
+   *
+   * @return test name
+   */
+  String name() default "";
+}
@@ -1,24 +1,170 @@
 package io.scalecube.trace.service.reporter;
 
+import io.scalecube.trace.NumericTraceData;
+import io.scalecube.trace.TraceData;
 import io.scalecube.trace.TraceReporter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 public abstract class AbstractPerformanceListener implements AutoCloseable {
 
-  protected final TraceReporter reporter = new TraceReporter();
+  protected TraceReporter reporter = new TraceReporter();
 
   protected PublisherContext publisherContext = new PublisherContext();
 
+  // clock of the JVM runtime traces added to the reporter of this listener, if enabled
+  protected ReportingClock jvmMetricsClock;
+
+  // shared by the clones, like the traces of the reporter
+  private final Publishing publishing = new Publishing();
+
+  /**
+   * Publish the results of this listener through {@link AsyncPublisher#defaultInstance()}.
+   *
+   * <p>By default all the traces are published, so every call sends a full snapshot of the
+   * results. When {@link PublisherContext#publishInterval()} is set, only the points appended
+   * since the last successful publish are sent, and published points are released from memory.
+   * Flushes of this listener and its clones are executed one after another in the order of calls.
+   *
+   * @return result of publishing, can be awaited or left to complete on its own; completes empty
+   *     if there was nothing to publish.
+   */
+  public final Mono<PublishResult> flush() {
+    return flush(false);
+  }
+
+  private Mono<PublishResult> flush(boolean last) {
+    synchronized (publishing) {
+      Mono<PublishResult> flush =
+          publishing
+              .lastFlush
+              .onErrorResume(th -> Mono.empty())
+              .then(Mono.defer(() -> publish(last)))
+              .doOnSubscribe(s -> publishing.flushing = true)
+              .doFinally(s -> publishing.flushing = false)
+              .cache();
+      flush.subscribe(
+          null,
+          th -> {
+            // reported by close() or by the caller of flush()
+          });
+      publishing.lastFlush = flush;
+      return flush;
+    }
+  }
+
+  private Mono<PublishResult> publish(boolean last) {
+    if (publisherContext.publishInterval() == null) {
+      return AsyncPublisher.defaultInstance().publish(publisherContext, reporter.traces());
+    }
+
+    // flushes are executed one after another, so the pending points aren't accessed concurrently
+    Map<NumericTraceData, NumericTraceData> pending = publishing.pending;
+    List<TraceData<Object, Object>> traces = new ArrayList<>();
+    for (TraceData<Object, Object> trace : reporter.traces()) {
+      if ((TraceData<?, ?>) trace instanceof NumericTraceData) {
+        NumericTraceData series = (NumericTraceData) (TraceData<?, ?>) trace;
+        NumericTraceData delta = series.drain();
+        NumericTraceData unpublished = pending.get(series);
+        if (unpublished != null) {
+          unpublished.addAll(delta);
+        } else if (delta.size() > 0) {
+          pending.put(series, delta);
+        }
+      } else if (last) {
+        // boxed traces can't be published partially
+        traces.add(trace);
+      }
+    }
+    for (NumericTraceData delta : pending.values()) {
+      traces.add(cast(delta));
+    }
+    if (traces.isEmpty()) {
+      return Mono.empty();
+    }
+    return AsyncPublisher.defaultInstance()
+        .publish(publisherContext, traces)
+        .doOnSuccess(result -> pending.clear());
+  }
+
+  /**
+   * Start publishing the results every {@link PublisherContext#publishInterval()}, if it is set.
+   * A tick is skipped while the previous flush is still in progress. Called on the first report,
+   * also starts sampling the JVM runtime traces if {@link #jvmMetricsClock} is set. Clones share
+   * the traces, so they share the publishing too: it's started once, by the first clone which
+   * reports, and stopped by {@link #close()} of any of them.
+   */
+  protected final void schedulePublishing() {
+    synchronized (publishing) {
+      if (jvmMetricsClock != null && publishing.jvmMetrics == null) {
+        publishing.jvmMetrics = new JvmMetricsSampler(reporter, jvmMetricsClock);
+      }
+      Duration interval = publisherContext.publishInterval();
+      if (interval != null && publishing.periodicFlush == null) {
+        publishing.periodicFlush =
+            Flux.interval(interval, interval, Schedulers.parallel())
+                .filter(i -> !publishing.flushing)
+                .subscribe(i -> flush(), Throwable::printStackTrace);
+      }
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static TraceData<Object, Object> cast(NumericTraceData trace) {
+    return (TraceData) trace;
+  }
+
   @Override
   public final void close() {
+    release(true);
+  }
+
+  /**
+   * Release the traces of this listener without publishing them, e.g. when results are only
+   * checked locally.
+   */
+  public final void discard() {
+    release(false);
+  }
+
+  private void release(boolean publish) {
+    synchronized (publishing) {
+      if (publishing.periodicFlush != null) {
+        publishing.periodicFlush.dispose();
+      }
+      if (publishing.jvmMetrics != null) {
+        publishing.jvmMetrics.close();
+      }
+    }
     try {
-      Publisher.publish(
-          publisherContext.traceReportUrl(),
-          publisherContext.owner(),
-          publisherContext.repo(),
-          publisherContext.commitId(),
-          reporter.traces());
+      if (publish) {
+        flush(true).block();
+      }
     } catch (Exception ex) {
       ex.printStackTrace();
+    } finally {
+      reporter.close();
     }
   }
+
+  /**
+   * Publishing state of the traces of a listener and its clones.
+   */
+  private static final class Publishing {
+
+    // points drained from the traces which were not published successfully yet
+    private final Map<NumericTraceData, NumericTraceData> pending = new IdentityHashMap<>();
+
+    private Mono<PublishResult> lastFlush = Mono.empty();
+    private volatile boolean flushing;
+    private Disposable periodicFlush;
+    private JvmMetricsSampler jvmMetrics;
+  }
 }
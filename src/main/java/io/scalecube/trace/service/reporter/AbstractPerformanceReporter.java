@@ -1,10 +1,14 @@
 package io.scalecube.trace.service.reporter;
 
 import java.time.Duration;
+import reactor.core.Disposable;
 
 public abstract class AbstractPerformanceReporter<T extends AbstractPerformanceReporter<?>>
     implements AutoCloseable {
 
+  // run without a reporting clock
+  protected static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
   protected int warmupTime = 1;
   protected int warmupIterations = 1;
   protected boolean warmupFinished = false;
@@ -12,9 +16,17 @@
   protected Duration reportDelay = Duration.ofMillis(warmupTime * warmupIterations);
   protected Duration reportInterval =
       Duration.ofSeconds(Long.getLong("benchmark.report.interval", 1));
+  protected ReportingClock clock;
+  protected SteadyStateDetector steadyState;
 
   public abstract T start();
 
+  /**
+   * Report the samples recorded since the last interval right away, e.g. the last partial interval
+   * before closing. Nothing is reported while warming up.
+   */
+  public abstract void report();
+
   /**
    * Setup warm-up time of the test (recalculates {@code reportDelay}).
    *
@@ -22,20 +34,103 @@
    * @return ThroughputReporter
    */
   public T warmupTime(Duration warmupTime) {
-    this.reportDelay = Duration.ofMillis(warmupTime.toMillis() * warmupIterations);
+    this.warmupTime = Math.toIntExact(warmupTime.toMillis());
+    this.reportDelay = Duration.ofMillis((long) this.warmupTime * warmupIterations);
     //noinspection unchecked
     return (T) this;
   }
 
   /**
-   * Setup warmupIterations of the test (recalculates {@code reportDelay}).
+   * Setup warmupIterations of the test (recalculates {@code reportDelay}). With 0 there is no
+   * warmup and the first interval is reported, unless {@link #adaptiveWarmup(SteadyStateDetector)}
+   * is set.
    *
    * @param warmupIterations number before test starts.
    * @return ThroughputReporter
    */
   public T warmupIterations(int warmupIterations) {
-    this.reportDelay = Duration.ofMillis(warmupTime * warmupIterations);
+    this.warmupIterations = warmupIterations;
+    this.reportDelay = Duration.ofMillis((long) warmupTime * warmupIterations);
     //noinspection unchecked
     return (T) this;
   }
+
+  /**
+   * Warm up until the interval metrics converge instead of skipping only the first interval. The
+   * latency reporter watches the median of the intervals, the throughput reporter the messages per
+   * second. Intervals before the steady state are discarded, listeners get only the ones after it.
+   * Must be set before {@link #start()}.
+   *
+   * @param steadyState detector of the steady state, e.g. {@code new SteadyStateDetector()}.
+   * @return reporter
+   */
+  public T adaptiveWarmup(SteadyStateDetector steadyState) {
+    this.steadyState = steadyState;
+    //noinspection unchecked
+    return (T) this;
+  }
+
+  /**
+   * How long the adaptive warmup took, see {@link #adaptiveWarmup(SteadyStateDetector)}.
+   *
+   * @return warmup duration, or null while warming up or without adaptive warmup.
+   */
+  public Duration warmupDuration() {
+    return steadyState != null ? steadyState.warmupDuration() : null;
+  }
+
+  /**
+   * Sample this reporter on the ticks of a shared clock instead of its own timer, the report
+   * interval becomes the interval of the clock. Listeners get the tick timestamps. Must be set
+   * before {@link #start()}.
+   *
+   * @param clock reporting clock, e.g. {@link ReportingClock#defaultInstance()}.
+   * @return reporter
+   */
+  public T clock(ReportingClock clock) {
+    this.clock = clock;
+    this.reportInterval = clock.interval();
+    //noinspection unchecked
+    return (T) this;
+  }
+
+  /**
+   * Start the warmup, called by {@link #start()}.
+   */
+  protected void startWarmup() {
+    warmupFinished = warmupIterations == 0 && steadyState == null;
+    if (steadyState != null) {
+      steadyState.reset();
+    }
+  }
+
+  /**
+   * Account an interval of the warmup.
+   *
+   * @param value metric of the interval watched by the adaptive warmup.
+   * @return true if the warmup is over, the interval is still discarded.
+   */
+  protected boolean finishWarmup(double value) {
+    if (steadyState == null) {
+      // fixed warmup, the first interval only
+      return true;
+    }
+    return steadyState.onInterval(value);
+  }
+
+  /**
+   * Register the sampler on the clock, ticks before {@code reportDelay} elapsed are skipped.
+   *
+   * @param sampler sampler of this reporter.
+   * @return disposable to unregister the sampler.
+   */
+  protected Disposable registerOnClock(ReportingClock.Sampler sampler) {
+    long startTime = System.nanoTime() + reportDelay.toNanos();
+    return clock.register(
+        timestamp -> {
+          if (System.nanoTime() - startTime >= 0) {
+            sampler.onTick(timestamp);
+          }
+        });
+  }
 }
@@ -0,0 +1,146 @@
+package io.scalecube.trace.service.reporter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.scalecube.trace.TraceData;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.publisher.Sinks.EmitResult;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+import reactor.util.retry.Retry;
+
+/**
+ * Non-blocking front of {@link Publisher}. Requests are kept in a bounded in-memory queue and are
+ * executed with bounded concurrency; every attempt is limited by {@link
+ * PublisherContext#timeout()} and failed attempts are retried with exponential backoff as
+ * configured by {@link PublisherContext#retries()} and {@link PublisherContext#retryBackoff()}.
+ * Only timeouts, I/O errors and server errors (5xx) are retried, a rejected request (4xx) fails
+ * right away.
+ */
+public final class AsyncPublisher implements AutoCloseable {
+
+  private static final int DEFAULT_CONCURRENCY =
+      Integer.getInteger("trace.publisher.concurrency", 2);
+  private static final int DEFAULT_QUEUE_SIZE =
+      Integer.getInteger("trace.publisher.queue.size", 64);
+
+  private final Scheduler scheduler;
+  private final Sinks.Many<Task> tasks;
+  private final Disposable disposable;
+
+  /**
+   * Create async publisher.
+   *
+   * @param concurrency max number of requests in flight.
+   * @param queueSize max number of requests waiting to be sent.
+   */
+  public AsyncPublisher(int concurrency, int queueSize) {
+    this.scheduler =
+        Schedulers.newBoundedElastic(concurrency, queueSize, "trace-publisher", 60, true);
+    this.tasks = Sinks.many().unicast().onBackpressureBuffer(Queues.<Task>get(queueSize).get());
+    this.disposable =
+        tasks
+            .asFlux()
+            .flatMap(Task::execute, concurrency)
+            .subscribe(null, Throwable::printStackTrace);
+  }
+
+  /**
+   * Shared instance, sized by {@code trace.publisher.concurrency} and {@code
+   * trace.publisher.queue.size} system properties.
+   *
+   * @return shared async publisher.
+   */
+  public static AsyncPublisher defaultInstance() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Enqueue a publish request. Nothing is sent until the returned {@code Mono} is subscribed.
+   *
+   * @param context target service, repository, commit and transfer settings of this request.
+   * @param traces the traces result of the test run.
+   * @return result of the request, errors with {@link RejectedExecutionException} if the queue is
+   *     full, otherwise with the error of the last attempt, e.g. {@link PublishException}.
+   */
+  public Mono<PublishResult> publish(
+      PublisherContext context, Collection<TraceData<Object, Object>> traces) {
+    return Mono.defer(
+        () -> {
+          Task task = new Task(context, traces);
+          EmitResult result;
+          synchronized (tasks) {
+            result = tasks.tryEmitNext(task);
+          }
+          if (result.isFailure()) {
+            return Mono.error(
+                new RejectedExecutionException("Can't enqueue publish request: " + result));
+          }
+          return task.result.asMono();
+        });
+  }
+
+  @Override
+  public void close() {
+    disposable.dispose();
+    scheduler.dispose();
+  }
+
+  private final class Task {
+
+    private final PublisherContext context;
+    private final Collection<TraceData<Object, Object>> traces;
+    private final Sinks.One<PublishResult> result = Sinks.one();
+    private final long startTime = System.nanoTime();
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    private Task(PublisherContext context, Collection<TraceData<Object, Object>> traces) {
+      this.context = context;
+      this.traces = traces;
+    }
+
+    private Mono<PublishResult> execute() {
+      return Mono.fromCallable(() -> Publisher.publish(context, traces))
+          .subscribeOn(scheduler)
+          .doOnSubscribe(s -> attempts.incrementAndGet())
+          .timeout(context.timeout())
+          .retryWhen(
+              Retry.backoff(context.retries(), context.retryBackoff())
+                  .filter(AsyncPublisher::isRetryable)
+                  .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+          .map(
+              responseCode ->
+                  new PublishResult(
+                      context.traceReportUrl(),
+                      responseCode,
+                      attempts.get(),
+                      Duration.ofNanos(System.nanoTime() - startTime)))
+          .doOnSuccess(result::tryEmitValue)
+          .doOnError(result::tryEmitError)
+          .onErrorResume(th -> Mono.empty());
+    }
+  }
+
+  private static boolean isRetryable(Throwable th) {
+    if (th instanceof PublishException) {
+      return ((PublishException) th).isServerError();
+    }
+    // a request which can't be serialized fails the same way every time
+    return th instanceof TimeoutException
+        || (th instanceof IOException && !(th instanceof JsonProcessingException));
+  }
+
+  private static final class Holder {
+
+    private static final AsyncPublisher INSTANCE =
+        new AsyncPublisher(DEFAULT_CONCURRENCY, DEFAULT_QUEUE_SIZE);
+  }
+}
@@ -0,0 +1,213 @@
+package io.scalecube.trace.service.reporter;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import org.agrona.CloseHelper;
+import org.agrona.concurrent.UnsafeBuffer;
+import reactor.core.Exceptions;
+
+/**
+ * CSV writer which formats numbers straight into a reusable buffer and writes it to a {@link
+ * FileChannel} according to a {@link CsvFlushPolicy}. Appending numbers doesn't allocate. Not
+ * thread-safe.
+ */
+public final class CsvChannelWriter implements AutoCloseable {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_DECIMALS = 9;
+  private static final double MAX_SCALED = 1e18;
+  private static final long[] POWERS_OF_TEN = new long[MAX_DECIMALS + 1];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  private final FileChannel channel;
+  private final ByteBuffer byteBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  private final UnsafeBuffer buffer = new UnsafeBuffer(byteBuffer);
+  private final CsvFlushPolicy flushPolicy;
+
+  private int position;
+  private int lineStart;
+  private boolean lineEmpty = true;
+  private int pendingLines;
+  private long lastFlushNanos = System.nanoTime();
+
+  /**
+   * Create the file, or truncate the existing one.
+   *
+   * @param fileName file name
+   * @param flushPolicy flush policy
+   */
+  public CsvChannelWriter(String fileName, CsvFlushPolicy flushPolicy) {
+    try {
+      this.channel =
+          FileChannel.open(
+              Paths.get(fileName),
+              StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING);
+    } catch (IOException e) {
+      throw Exceptions.propagate(e);
+    }
+    this.flushPolicy = flushPolicy;
+  }
+
+  /**
+   * Append a text column, the value is quoted if needed.
+   *
+   * @param value value
+   * @return this writer
+   */
+  public CsvChannelWriter column(String value) {
+    separator();
+    boolean quote =
+        value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0;
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    ensure(bytes.length * 2 + 2);
+    if (quote) {
+      buffer.putByte(position++, (byte) '"');
+    }
+    for (byte b : bytes) {
+      if (b == '"') {
+        buffer.putByte(position++, b);
+      }
+      buffer.putByte(position++, b);
+    }
+    if (quote) {
+      buffer.putByte(position++, (byte) '"');
+    }
+    return this;
+  }
+
+  /**
+   * Append an integer column.
+   *
+   * @param value value
+   * @return this writer
+   */
+  public CsvChannelWriter column(long value) {
+    separator();
+    ensure(20);
+    position += buffer.putLongAscii(position, value);
+    return this;
+  }
+
+  /**
+   * Append a fixed-point column.
+   *
+   * @param value value
+   * @param decimals number of digits after the decimal point, up to 9
+   * @return this writer
+   */
+  public CsvChannelWriter column(double value, int decimals) {
+    separator();
+    long scale = POWERS_OF_TEN[decimals];
+    double scaled = Math.abs(value) * scale;
+    if (!(scaled < MAX_SCALED)) {
+      // NaN, infinity or too large, never happens for reported values
+      return append(Double.toString(value));
+    }
+    long units = Math.round(scaled);
+    ensure(22 + decimals);
+    if (value < 0 && units != 0) {
+      buffer.putByte(position++, (byte) '-');
+    }
+    position += buffer.putLongAscii(position, units / scale);
+    if (decimals > 0) {
+      buffer.putByte(position++, (byte) '.');
+      long fraction = units % scale;
+      for (int i = decimals - 1; i >= 0; i--) {
+        buffer.putByte(position++, (byte) ('0' + (fraction / POWERS_OF_TEN[i]) % 10));
+      }
+    }
+    return this;
+  }
+
+  /** Finish the current line and write the buffer out if the flush policy says so. */
+  public void endLine() {
+    ensure(1);
+    buffer.putByte(position++, (byte) '\n');
+    lineStart = position;
+    lineEmpty = true;
+    pendingLines++;
+    long now = System.nanoTime();
+    if (flushPolicy.shouldFlush(pendingLines, now - lastFlushNanos)) {
+      flush();
+    }
+  }
+
+  /** Write all complete lines to the file. */
+  public void flush() {
+    write(lineStart);
+    pendingLines = 0;
+    lastFlushNanos = System.nanoTime();
+  }
+
+  private CsvChannelWriter append(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+    ensure(bytes.length);
+    buffer.putBytes(position, bytes);
+    position += bytes.length;
+    return this;
+  }
+
+  private void separator() {
+    if (!lineEmpty) {
+      ensure(1);
+      buffer.putByte(position++, (byte) ',');
+    }
+    lineEmpty = false;
+  }
+
+  private void ensure(int length) {
+    if (position + length > BUFFER_SIZE) {
+      // spill everything, including the incomplete line
+      write(position);
+      if (length > BUFFER_SIZE) {
+        throw new IllegalArgumentException("Column is too long: " + length);
+      }
+    }
+  }
+
+  private void write(int limit) {
+    if (limit == 0) {
+      return;
+    }
+    try {
+      // Buffer casts keep the bytecode compatible with java 8
+      ((Buffer) byteBuffer).limit(limit);
+      ((Buffer) byteBuffer).position(0);
+      while (byteBuffer.hasRemaining()) {
+        channel.write(byteBuffer);
+      }
+    } catch (IOException e) {
+      throw Exceptions.propagate(e);
+    } finally {
+      ((Buffer) byteBuffer).clear();
+    }
+    int remaining = position - limit;
+    if (remaining > 0) {
+      buffer.putBytes(0, buffer, limit, remaining);
+    }
+    position = remaining;
+    lineStart = Math.max(0, lineStart - limit);
+  }
+
+  @Override
+  public void close() {
+    try {
+      write(position);
+    } finally {
+      CloseHelper.quietClose(channel);
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package io.scalecube.trace.service.reporter;
+
+import java.time.Duration;
+
+/**
+ * When {@link CsvChannelWriter} writes the buffered lines to the file. The buffer is also written
+ * when it fills up and on close.
+ */
+public final class CsvFlushPolicy {
+
+  private final int lines;
+  private final long intervalNanos;
+
+  private CsvFlushPolicy(int lines, long intervalNanos) {
+    this.lines = lines;
+    this.intervalNanos = intervalNanos;
+  }
+
+  /**
+   * Write after every line.
+   *
+   * @return policy
+   */
+  public static CsvFlushPolicy everyLine() {
+    return everyLines(1);
+  }
+
+  /**
+   * Write after every {@code lines} lines.
+   *
+   * @param lines number of lines
+   * @return policy
+   */
+  public static CsvFlushPolicy everyLines(int lines) {
+    if (lines < 1) {
+      throw new IllegalArgumentException("lines must be positive");
+    }
+    return new CsvFlushPolicy(lines, 0);
+  }
+
+  /**
+   * Write the first line appended once {@code interval} elapsed since the previous write.
+   *
+   * @param interval interval
+   * @return policy
+   */
+  public static CsvFlushPolicy every(Duration interval) {
+    return new CsvFlushPolicy(0, interval.toNanos());
+  }
+
+  /**
+   * Write only when the buffer is full and on close.
+   *
+   * @return policy
+   */
+  public static CsvFlushPolicy onClose() {
+    return new CsvFlushPolicy(0, 0);
+  }
+
+  boolean shouldFlush(int pendingLines, long nanosSinceFlush) {
+    return (lines > 0 && pendingLines >= lines)
+        || (intervalNanos > 0 && nanosSinceFlush >= intervalNanos);
+  }
+
+  @Override
+  public String toString() {
+    return "CsvFlushPolicy{lines=" + lines + ", intervalNanos=" + intervalNanos + '}';
+  }
+}
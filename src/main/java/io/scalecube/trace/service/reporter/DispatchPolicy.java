@@ -0,0 +1,13 @@
+package io.scalecube.trace.service.reporter;
+
+/**
+ * What an asynchronous listener does when its queue is full, see {@link ListenerDispatcher}.
+ */
+public enum DispatchPolicy {
+
+  /** Drop the event and count it, the reporting thread is never delayed. */
+  DROP,
+
+  /** Wait on the reporting thread until the queue has room. */
+  BLOCK
+}
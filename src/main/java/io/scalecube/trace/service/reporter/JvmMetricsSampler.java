@@ -0,0 +1,239 @@
+package io.scalecube.trace.service.reporter;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import io.scalecube.trace.TraceHandle;
+import io.scalecube.trace.TraceReporter;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import org.agrona.collections.Long2LongHashMap;
+import reactor.core.Disposable;
+
+/**
+ * Samples JVM runtime metrics on every tick of a {@link ReportingClock} and adds them as time
+ * traces to a {@link TraceReporter}, so they are published together with the latency and
+ * throughput traces and can be lined up with them. Every trace holds a value per interval:
+ *
+ * <ul>
+ *   <li>{@code gc}: stop-the-world collections, their time and the longest one (from GC
+ *       notifications), in millis; concurrent cycles (e.g. {@code ZGC Cycles}, {@code Shenandoah
+ *       Cycles}, {@code G1 Concurrent GC}) aren't pauses and are skipped
+ *   <li>{@code memory}: allocation rate in MB/s and used heap in MB
+ *   <li>{@code jit}: compilation time in millis
+ *   <li>{@code threads}: live threads
+ *   <li>{@code cpu}: process and system CPU load in percent
+ * </ul>
+ *
+ * <p>Metrics the JVM doesn't support are skipped.
+ */
+public final class JvmMetricsSampler implements ReportingClock.Sampler, AutoCloseable {
+
+  private static final double MB = 1024 * 1024;
+  private static final String END_OF_CYCLE = "end of GC cycle";
+
+  // collectors which stop the world, see isConcurrent(String)
+  private final List<GarbageCollectorMXBean> collectors = new ArrayList<>();
+  private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+  private final CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+  private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+
+  private final TraceHandle gcCount;
+  private final TraceHandle gcTime;
+  private final TraceHandle gcMaxPause;
+  private final TraceHandle allocationRate;
+  private final TraceHandle heapUsed;
+  private final TraceHandle compilationTime;
+  private final TraceHandle threadCount;
+  private final TraceHandle processCpuLoad;
+  private final TraceHandle systemCpuLoad;
+
+  private final AtomicLong maxPauseMillis = new AtomicLong();
+  private final List<NotificationEmitter> emitters = new ArrayList<>();
+  private final NotificationListener gcListener = this::onGcNotification;
+  // allocated bytes by thread id, of the previous and the current sample
+  private Long2LongHashMap allocatedBytes = new Long2LongHashMap(-1);
+  private Long2LongHashMap previousAllocatedBytes = new Long2LongHashMap(-1);
+  private final Disposable registration;
+
+  private long lastNanos;
+  private long lastGcCount;
+  private long lastGcTime;
+  private long lastCompilationTime;
+
+  /**
+   * Create sampler and register it on the clock.
+   *
+   * @param reporter reporter the traces are added to.
+   * @param clock reporting clock.
+   */
+  public JvmMetricsSampler(TraceReporter reporter, ReportingClock clock) {
+    this.gcCount = reporter.timeSeries("gc count", "gc");
+    this.gcTime = reporter.timeSeries("gc time (ms)", "gc");
+    this.gcMaxPause = reporter.timeSeries("gc max pause (ms)", "gc");
+    this.allocationRate =
+        isAllocationSupported() ? reporter.timeSeries("allocation rate (MB/s)", "memory") : null;
+    this.heapUsed = reporter.timeSeries("heap used (MB)", "memory");
+    this.compilationTime =
+        compilation != null && compilation.isCompilationTimeMonitoringSupported()
+            ? reporter.timeSeries("compilation time (ms)", "jit")
+            : null;
+    this.threadCount = reporter.timeSeries("threads", "threads");
+    boolean cpuSupported = os instanceof com.sun.management.OperatingSystemMXBean;
+    this.processCpuLoad =
+        cpuSupported ? reporter.timeSeries("process cpu load (%)", "cpu") : null;
+    this.systemCpuLoad = cpuSupported ? reporter.timeSeries("system cpu load (%)", "cpu") : null;
+
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      if (isConcurrent(collector.getName())) {
+        continue;
+      }
+      collectors.add(collector);
+      if (collector instanceof NotificationEmitter) {
+        NotificationEmitter emitter = (NotificationEmitter) collector;
+        emitter.addNotificationListener(gcListener, null, null);
+        emitters.add(emitter);
+      }
+    }
+    // baselines of the first interval
+    this.lastNanos = System.nanoTime();
+    this.lastGcCount = totalGcCount();
+    this.lastGcTime = totalGcTime();
+    this.lastCompilationTime = compilationTime != null ? compilation.getTotalCompilationTime() : 0;
+    if (allocationRate != null) {
+      allocatedBytesSinceLastSample();
+    }
+    this.registration = clock.register(this);
+  }
+
+  @Override
+  @SuppressWarnings("deprecation") // getSystemCpuLoad() is replaced only on Java 14+
+  public void onTick(long timestamp) {
+    long now = System.nanoTime();
+    final double seconds = (now - lastNanos) / 1e9;
+    lastNanos = now;
+
+    long currentGcCount = totalGcCount();
+    long currentGcTime = totalGcTime();
+    gcCount.add(timestamp, currentGcCount - lastGcCount);
+    gcTime.add(timestamp, currentGcTime - lastGcTime);
+    gcMaxPause.add(timestamp, maxPauseMillis.getAndSet(0));
+    lastGcCount = currentGcCount;
+    lastGcTime = currentGcTime;
+
+    if (allocationRate != null && seconds > 0) {
+      allocationRate.add(timestamp, allocatedBytesSinceLastSample() / MB / seconds);
+    }
+    heapUsed.add(timestamp, memory.getHeapMemoryUsage().getUsed() / MB);
+
+    if (compilationTime != null) {
+      long currentCompilationTime = compilation.getTotalCompilationTime();
+      compilationTime.add(timestamp, currentCompilationTime - lastCompilationTime);
+      lastCompilationTime = currentCompilationTime;
+    }
+
+    threadCount.add(timestamp, threads.getThreadCount());
+
+    if (processCpuLoad != null) {
+      com.sun.management.OperatingSystemMXBean cpu = (com.sun.management.OperatingSystemMXBean) os;
+      processCpuLoad.add(timestamp, Math.max(0, cpu.getProcessCpuLoad()) * 100);
+      systemCpuLoad.add(timestamp, Math.max(0, cpu.getSystemCpuLoad()) * 100);
+    }
+  }
+
+  private void onGcNotification(Notification notification, Object handback) {
+    if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(
+        notification.getType())) {
+      return;
+    }
+    GarbageCollectionNotificationInfo info =
+        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+    if (END_OF_CYCLE.equals(info.getGcAction())) {
+      return;
+    }
+    long duration = info.getGcInfo().getDuration();
+    maxPauseMillis.accumulateAndGet(duration, Math::max);
+  }
+
+  /**
+   * Whether the collector reports concurrent cycles instead of pauses: the cycle beans of ZGC and
+   * Shenandoah, and the concurrent beans of G1 (Java 20+) and CMS.
+   */
+  static boolean isConcurrent(String collectorName) {
+    return collectorName.endsWith("Cycles") || collectorName.contains("Concurrent");
+  }
+
+  private boolean isAllocationSupported() {
+    if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+      return false;
+    }
+    com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) threads;
+    return threadBean.isThreadAllocatedMemorySupported()
+        && threadBean.isThreadAllocatedMemoryEnabled();
+  }
+
+  /**
+   * Bytes allocated by the live threads since the previous call, threads which died meanwhile are
+   * not accounted for their last allocations.
+   */
+  private long allocatedBytesSinceLastSample() {
+    com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) threads;
+    long[] ids = threadBean.getAllThreadIds();
+    long[] bytes = threadBean.getThreadAllocatedBytes(ids);
+    Long2LongHashMap previous = allocatedBytes;
+    allocatedBytes = previousAllocatedBytes;
+    previousAllocatedBytes = previous;
+    allocatedBytes.clear();
+    long total = 0;
+    for (int i = 0; i < ids.length; i++) {
+      if (bytes[i] < 0) {
+        // thread died meanwhile
+        continue;
+      }
+      long last = previous.get(ids[i]);
+      total += last >= 0 ? bytes[i] - last : bytes[i];
+      allocatedBytes.put(ids[i], bytes[i]);
+    }
+    return total;
+  }
+
+  private long totalGcCount() {
+    long total = 0;
+    for (GarbageCollectorMXBean collector : collectors) {
+      total += Math.max(0, collector.getCollectionCount());
+    }
+    return total;
+  }
+
+  private long totalGcTime() {
+    long total = 0;
+    for (GarbageCollectorMXBean collector : collectors) {
+      total += Math.max(0, collector.getCollectionTime());
+    }
+    return total;
+  }
+
+  /** Stop sampling. */
+  @Override
+  public void close() {
+    registration.dispose();
+    for (NotificationEmitter emitter : emitters) {
+      try {
+        emitter.removeNotificationListener(gcListener);
+      } catch (ListenerNotFoundException e) {
+        // already removed
+      }
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package io.scalecube.trace.service.reporter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.ManyToOneConcurrentArrayQueue;
+import org.agrona.concurrent.SleepingMillisIdleStrategy;
+
+/**
+ * Runs the events of a single listener on its own worker thread, fed through a bounded queue. The
+ * reporting thread only hands the events over, so a slow listener does not shift the reporting
+ * intervals. Events are executed in the order they were dispatched. Every event is either executed
+ * or counted as dropped, also when it races with {@link #close()}.
+ */
+public final class ListenerDispatcher implements AutoCloseable {
+
+  private final ManyToOneConcurrentArrayQueue<Runnable> queue;
+  private final DispatchPolicy policy;
+  private final AtomicLong dropped = new AtomicLong();
+  // dispatch calls in progress, close waits for them before the last drain
+  private final AtomicInteger dispatching = new AtomicInteger();
+  private final AgentRunner runner;
+
+  private volatile boolean closed;
+
+  /**
+   * Create dispatcher and start its worker thread.
+   *
+   * @param name name of the worker thread
+   * @param capacity capacity of the queue
+   * @param policy what to do when the queue is full
+   */
+  public ListenerDispatcher(String name, int capacity, DispatchPolicy policy) {
+    this.queue = new ManyToOneConcurrentArrayQueue<>(capacity);
+    this.policy = policy;
+    this.runner =
+        new AgentRunner(
+            new SleepingMillisIdleStrategy(1), Throwable::printStackTrace, null, new Worker(name));
+    AgentRunner.startOnThread(runner);
+  }
+
+  /**
+   * Hand an event over to the worker, with the policy of this dispatcher.
+   *
+   * @param event event
+   * @return false if the event was dropped.
+   */
+  public boolean dispatch(Runnable event) {
+    return dispatch(event, policy);
+  }
+
+  /**
+   * Hand an event over to the worker, e.g. with {@link DispatchPolicy#BLOCK} for an event which
+   * must not be dropped when the queue is full.
+   *
+   * @param event event
+   * @param policy what to do when the queue is full
+   * @return false if the event was dropped.
+   */
+  public boolean dispatch(Runnable event, DispatchPolicy policy) {
+    dispatching.incrementAndGet();
+    try {
+      if (!closed && offer(event, policy)) {
+        return true;
+      }
+      dropped.incrementAndGet();
+      return false;
+    } finally {
+      dispatching.decrementAndGet();
+    }
+  }
+
+  private boolean offer(Runnable event, DispatchPolicy policy) {
+    if (queue.offer(event)) {
+      return true;
+    }
+    if (policy == DispatchPolicy.BLOCK) {
+      IdleStrategy idleStrategy =
+          new BackoffIdleStrategy(1, 10, 1000, TimeUnit.MILLISECONDS.toNanos(1));
+      while (!closed) {
+        idleStrategy.idle();
+        if (queue.offer(event)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Number of events dropped because the queue was full.
+   *
+   * @return dropped events.
+   */
+  public long droppedEvents() {
+    return dropped.get();
+  }
+
+  /** Execute the events left in the queue and stop the worker thread. */
+  @Override
+  public void close() {
+    closed = true;
+    // events offered by the dispatch calls in progress are drained by the worker on close
+    IdleStrategy idleStrategy = new SleepingMillisIdleStrategy(1);
+    while (dispatching.get() > 0) {
+      idleStrategy.idle();
+    }
+    runner.close();
+  }
+
+  private final class Worker implements Agent {
+
+    private final String name;
+
+    private Worker(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public int doWork() {
+      return queue.drain(ListenerDispatcher::execute);
+    }
+
+    @Override
+    public void onClose() {
+      queue.drain(ListenerDispatcher::execute);
+    }
+
+    @Override
+    public String roleName() {
+      return name;
+    }
+  }
+
+  private static void execute(Runnable event) {
+    try {
+      event.run();
+    } catch (Throwable th) {
+      th.printStackTrace();
+    }
+  }
+}
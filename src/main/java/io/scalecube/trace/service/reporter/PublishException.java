@@ -0,0 +1,37 @@
+package io.scalecube.trace.service.reporter;
+
+import java.io.IOException;
+
+/**
+ * Unsuccessful response of the target service, see {@link Publisher}.
+ */
+public final class PublishException extends IOException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final int responseCode;
+
+  /**
+   * Create exception.
+   *
+   * @param url target url.
+   * @param responseCode response code of the target service.
+   */
+  public PublishException(String url, int responseCode) {
+    super("Server returned HTTP response code: " + responseCode + " for URL: " + url);
+    this.responseCode = responseCode;
+  }
+
+  public int responseCode() {
+    return responseCode;
+  }
+
+  /**
+   * Whether the request may succeed if sent again, i.e. the service failed (5xx), not the request.
+   *
+   * @return true for server errors.
+   */
+  public boolean isServerError() {
+    return responseCode >= 500;
+  }
+}
@@ -0,0 +1,56 @@
+package io.scalecube.trace.service.reporter;
+
+import java.time.Duration;
+
+/** Outcome of a successful publish request. */
+public final class PublishResult {
+
+  private final String url;
+  private final int responseCode;
+  private final int attempts;
+  private final Duration elapsed;
+
+  /**
+   * Create publish result.
+   *
+   * @param url target service the results were published to.
+   * @param responseCode response code of the target service.
+   * @param attempts number of attempts it took, including the successful one.
+   * @param elapsed time since the request was submitted.
+   */
+  public PublishResult(String url, int responseCode, int attempts, Duration elapsed) {
+    this.url = url;
+    this.responseCode = responseCode;
+    this.attempts = attempts;
+    this.elapsed = elapsed;
+  }
+
+  public String url() {
+    return url;
+  }
+
+  public int responseCode() {
+    return responseCode;
+  }
+
+  public int attempts() {
+    return attempts;
+  }
+
+  public Duration elapsed() {
+    return elapsed;
+  }
+
+  @Override
+  public String toString() {
+    return "PublishResult [url="
+        + url
+        + ", responseCode="
+        + responseCode
+        + ", attempts="
+        + attempts
+        + ", elapsed="
+        + elapsed
+        + "]";
+  }
+}
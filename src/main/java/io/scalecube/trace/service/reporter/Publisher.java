@@ -3,20 +3,30 @@
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import io.scalecube.trace.TimeFormat;
 import io.scalecube.trace.TraceData;
 import java.io.BufferedReader;
-import java.io.DataOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.zip.GZIPOutputStream;
 
 public final class Publisher {
 
+  private static final int BUFFER_SIZE = 8192;
+
   private static final ObjectMapper mapper = initMapper();
 
   private Publisher() {
@@ -50,42 +60,144 @@ public static void publish(
       String sha,
       Collection<TraceData<Object, Object>> collection)
       throws IOException {
-    String uri = String.format("%s/%s/%s/%s", url, owner, repo, sha);
+    publish(
+        new PublisherContext().traceReportUrl(url).owner(owner).repo(repo).commitId(sha),
+        collection);
+  }
+
+  /**
+   * publish test results as described by the given context.
+   *
+   * @param context target service, repository, commit and transfer settings of this request.
+   * @param collection the traces result of the test run.
+   * @return response code of the target service.
+   * @throws IOException on error, {@link PublishException} on unsuccessful response code.
+   */
+  public static int publish(
+      PublisherContext context, Collection<TraceData<Object, Object>> collection)
+      throws IOException {
+    String uri =
+        String.format(
+            "%s/%s/%s/%s",
+            context.traceReportUrl(),
+            context.owner(),
+            context.repo(),
+            context.commitId());
+    return postResults(uri, context, request(context, collection));
+  }
+
+  /**
+   * serialize test results into json the way they are published, without the transfer encoding.
+   *
+   * @param context repository and commit of this request.
+   * @param collection the traces result of the test run.
+   * @param out stream to write to, it is not closed.
+   * @throws IOException on error.
+   */
+  public static void serialize(
+      PublisherContext context, Collection<TraceData<Object, Object>> collection, OutputStream out)
+      throws IOException {
+    try (JsonGenerator generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      writer(context).writeValue(generator, request(context, collection));
+    }
+  }
+
+  private static ObjectWriter writer(PublisherContext context) {
+    return mapper.writer().withAttribute(TimeFormat.ATTRIBUTE, context.timeFormat());
+  }
+
+  private static PerfromanceTestRequest request(
+      PublisherContext context, Collection<TraceData<Object, Object>> collection) {
     //noinspection rawtypes
     TraceData[] traces = collection.toArray(new TraceData[0]);
-    PerfromanceTestRequest req = new PerfromanceTestRequest(owner, repo, sha, traces);
-    postResults(uri, mapper.writeValueAsString(req));
+    return new PerfromanceTestRequest(context.owner(), context.repo(), context.commitId(), traces);
   }
 
-  private static void postResults(String url, String jsonData) throws IOException {
+  private static int postResults(String url, PublisherContext context, Object req)
+      throws IOException {
     URL obj = new URL(url);
     HttpURLConnection con = (HttpURLConnection) obj.openConnection();
 
     // Setting basic post request
+    con.setConnectTimeout((int) context.timeout().toMillis());
+    con.setReadTimeout((int) context.timeout().toMillis());
     con.setRequestMethod("POST");
     con.setRequestProperty("Accept-Language", "en-US,en;q=0.5");
-    con.setRequestProperty("Content-Type", "application/json");
+    con.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+    if (context.gzip()) {
+      con.setRequestProperty("Content-Encoding", "gzip");
+    }
 
     // Send post request
     con.setDoOutput(true);
-    DataOutputStream wr = new DataOutputStream(con.getOutputStream());
-    wr.writeBytes(jsonData);
-    wr.flush();
-    wr.close();
+    if (context.streaming()) {
+      con.setChunkedStreamingMode(0);
+      try (OutputStream out = body(con.getOutputStream(), context);
+          JsonGenerator generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+        writer(context).writeValue(generator, req);
+      }
+      if (context.verbose()) {
+        System.out.println("nSending 'POST' request to URL : " + url);
+        System.out.println("Post Data : <streamed>");
+      }
+    } else {
+      byte[] jsonData = writer(context).writeValueAsBytes(req);
+      byte[] payload = jsonData;
+      if (context.gzip()) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(jsonData.length / 4);
+        try (OutputStream out = body(bytes, context)) {
+          out.write(jsonData);
+        }
+        payload = bytes.toByteArray();
+      }
+      con.setFixedLengthStreamingMode(payload.length);
+      try (OutputStream out = con.getOutputStream()) {
+        out.write(payload);
+      }
+      if (context.verbose()) {
+        System.out.println("nSending 'POST' request to URL : " + url);
+        System.out.println("Post Data : " + new String(jsonData, StandardCharsets.UTF_8));
+      }
+    }
 
     int responseCode = con.getResponseCode();
-    System.out.println("nSending 'POST' request to URL : " + url);
-    System.out.println("Post Data : " + jsonData);
-    System.out.println("Response Code : " + responseCode);
+    if (context.verbose()) {
+      System.out.println("Response Code : " + responseCode);
+    }
+
+    InputStream response = responseCode < 400 ? con.getInputStream() : con.getErrorStream();
+    if (response != null) {
+      try (InputStream in = response) {
+        readResponse(in, context.verbose());
+      }
+    }
+    if (responseCode >= 400) {
+      throw new PublishException(url, responseCode);
+    }
+    return responseCode;
+  }
+
+  private static OutputStream body(OutputStream out, PublisherContext context) throws IOException {
+    return context.gzip() ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+  }
+
+  private static void readResponse(InputStream in, boolean verbose) throws IOException {
+    if (!verbose) {
+      // drain the response so that the connection can be reused
+      byte[] buffer = new byte[BUFFER_SIZE];
+      //noinspection StatementWithEmptyBody
+      while (in.read(buffer) != -1) {}
+      return;
+    }
 
-    BufferedReader in = new BufferedReader(new InputStreamReader(con.getInputStream()));
+    BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
     String output;
     StringBuilder response = new StringBuilder();
 
-    while ((output = in.readLine()) != null) {
+    while ((output = reader.readLine()) != null) {
       response.append(output);
     }
-    in.close();
 
     // printing result from response
     System.out.println(response.toString());
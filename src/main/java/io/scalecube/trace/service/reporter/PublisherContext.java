@@ -1,5 +1,7 @@
 package io.scalecube.trace.service.reporter;
 
+import io.scalecube.trace.TimeFormat;
+import java.time.Duration;
 import reactor.core.Exceptions;
 
 public final class PublisherContext implements Cloneable {
@@ -9,6 +11,14 @@ public final class PublisherContext implements Cloneable {
   private String testName = "TEST_NAME";
   private String commitId = "1";
   private String traceReportUrl = "https://scalecube-robokit.exchange.om2.com/traces";
+  private boolean streaming = false;
+  private boolean gzip = false;
+  private boolean verbose = false;
+  private Duration timeout = Duration.ofSeconds(30);
+  private int retries = 3;
+  private Duration retryBackoff = Duration.ofSeconds(1);
+  private Duration publishInterval;
+  private TimeFormat timeFormat = TimeFormat.ISO;
 
   /**
    * Setter for {@code owner}.
@@ -90,6 +100,140 @@ public String traceReportUrl() {
     return traceReportUrl;
   }
 
+  /**
+   * Setter for {@code streaming}. When enabled the request is serialized straight into the
+   * connection using chunked transfer encoding, otherwise it is serialized into memory first.
+   *
+   * @param streaming streaming
+   * @return new {@code PublisherContext} instance
+   */
+  public PublisherContext streaming(boolean streaming) {
+    PublisherContext c = clone();
+    c.streaming = streaming;
+    return c;
+  }
+
+  public boolean streaming() {
+    return streaming;
+  }
+
+  /**
+   * Setter for {@code gzip}. When enabled the request body is sent with {@code Content-Encoding:
+   * gzip}.
+   *
+   * @param gzip gzip
+   * @return new {@code PublisherContext} instance
+   */
+  public PublisherContext gzip(boolean gzip) {
+    PublisherContext c = clone();
+    c.gzip = gzip;
+    return c;
+  }
+
+  public boolean gzip() {
+    return gzip;
+  }
+
+  /**
+   * Setter for {@code verbose}. When enabled the request payload and the response are printed to
+   * {@code System.out}.
+   *
+   * @param verbose verbose
+   * @return new {@code PublisherContext} instance
+   */
+  public PublisherContext verbose(boolean verbose) {
+    PublisherContext c = clone();
+    c.verbose = verbose;
+    return c;
+  }
+
+  public boolean verbose() {
+    return verbose;
+  }
+
+  /**
+   * Setter for {@code timeout}, limits connect, read and overall time of a single attempt.
+   *
+   * @param timeout timeout
+   * @return new {@code PublisherContext} instance
+   */
+  public PublisherContext timeout(Duration timeout) {
+    PublisherContext c = clone();
+    c.timeout = timeout;
+    return c;
+  }
+
+  public Duration timeout() {
+    return timeout;
+  }
+
+  /**
+   * Setter for {@code retries}, number of attempts made by {@link AsyncPublisher} after the first
+   * one has failed.
+   *
+   * @param retries retries
+   * @return new {@code PublisherContext} instance
+   */
+  public PublisherContext retries(int retries) {
+    PublisherContext c = clone();
+    c.retries = retries;
+    return c;
+  }
+
+  public int retries() {
+    return retries;
+  }
+
+  /**
+   * Setter for {@code retryBackoff}, the first backoff of {@link AsyncPublisher} retries, it grows
+   * exponentially with every next attempt.
+   *
+   * @param retryBackoff retryBackoff
+   * @return new {@code PublisherContext} instance
+   */
+  public PublisherContext retryBackoff(Duration retryBackoff) {
+    PublisherContext c = clone();
+    c.retryBackoff = retryBackoff;
+    return c;
+  }
+
+  public Duration retryBackoff() {
+    return retryBackoff;
+  }
+
+  /**
+   * Setter for {@code publishInterval}. When set the listener publishes the points appended since
+   * the last successful publish every interval, instead of publishing everything on close.
+   *
+   * @param publishInterval publishInterval
+   * @return new {@code PublisherContext} instance
+   */
+  public PublisherContext publishInterval(Duration publishInterval) {
+    PublisherContext c = clone();
+    c.publishInterval = publishInterval;
+    return c;
+  }
+
+  public Duration publishInterval() {
+    return publishInterval;
+  }
+
+  /**
+   * Setter for {@code timeFormat}, how timestamps of time traces are written.
+   *
+   * @param timeFormat timeFormat
+   * @return new {@code PublisherContext} instance
+   */
+  public PublisherContext timeFormat(TimeFormat timeFormat) {
+    PublisherContext c = clone();
+    c.timeFormat = timeFormat;
+    return c;
+  }
+
+  public TimeFormat timeFormat() {
+    return timeFormat;
+  }
+
   @Override
   public PublisherContext clone() {
     try {
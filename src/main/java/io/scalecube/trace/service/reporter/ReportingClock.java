@@ -0,0 +1,129 @@
+package io.scalecube.trace.service.reporter;
+
+import java.time.Duration;
+import java.util.concurrent.CopyOnWriteArrayList;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * One timer for many reporters. Ticks are aligned to the wall clock (a multiple of the interval
+ * since the epoch), and on every tick all registered samplers are called one after another with
+ * the same tick timestamp, so the points of different reporters can be correlated.
+ *
+ * <p>The timer runs only while there are registered samplers.
+ */
+public final class ReportingClock implements AutoCloseable {
+
+  private final long intervalMillis;
+  private final Scheduler scheduler;
+  private final CopyOnWriteArrayList<Sampler> samplers = new CopyOnWriteArrayList<>();
+
+  private Disposable timer;
+
+  /**
+   * Sampled by {@link ReportingClock} on every tick.
+   */
+  @FunctionalInterface
+  public interface Sampler {
+
+    /**
+     * Take a sample.
+     *
+     * @param timestamp tick time, epoch millis.
+     */
+    void onTick(long timestamp);
+  }
+
+  public ReportingClock(Duration interval) {
+    this(interval, Schedulers.single());
+  }
+
+  /**
+   * Create reporting clock.
+   *
+   * @param interval interval between ticks, whole millis.
+   * @param scheduler scheduler to sample on.
+   */
+  public ReportingClock(Duration interval, Scheduler scheduler) {
+    this.intervalMillis = interval.toMillis();
+    if (intervalMillis <= 0) {
+      throw new IllegalArgumentException("interval must be at least 1ms");
+    }
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Shared clock ticking every {@code benchmark.report.interval} seconds (1 by default).
+   *
+   * @return clock
+   */
+  public static ReportingClock defaultInstance() {
+    return Holder.INSTANCE;
+  }
+
+  public Duration interval() {
+    return Duration.ofMillis(intervalMillis);
+  }
+
+  /**
+   * Register sampler, it's called starting from the next tick.
+   *
+   * @param sampler sampler
+   * @return disposable to unregister the sampler.
+   */
+  public synchronized Disposable register(Sampler sampler) {
+    samplers.add(sampler);
+    if (timer == null) {
+      long now = System.currentTimeMillis();
+      long delay = intervalMillis - now % intervalMillis;
+      timer =
+          Flux.interval(
+                  Duration.ofMillis(delay), Duration.ofMillis(intervalMillis), scheduler)
+              .subscribe(i -> tick(), Throwable::printStackTrace);
+    }
+    return () -> unregister(sampler);
+  }
+
+  private synchronized void unregister(Sampler sampler) {
+    if (samplers.remove(sampler) && samplers.isEmpty() && timer != null) {
+      timer.dispose();
+      timer = null;
+    }
+  }
+
+  private void tick() {
+    // timer jitter is removed by rounding to the nearest tick
+    long timestamp =
+        (System.currentTimeMillis() + intervalMillis / 2) / intervalMillis * intervalMillis;
+    for (Sampler sampler : samplers) {
+      try {
+        sampler.onTick(timestamp);
+      } catch (Throwable th) {
+        th.printStackTrace();
+      }
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    samplers.clear();
+    if (timer != null) {
+      timer.dispose();
+      timer = null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ReportingClock{interval=" + intervalMillis + "ms, samplers=" + samplers.size() + '}';
+  }
+
+  private static final class Holder {
+    private static final ReportingClock INSTANCE =
+        new ReportingClock(
+            Duration.ofSeconds(Long.getLong("benchmark.report.interval", 1)),
+            Schedulers.newSingle("reporting-clock", true));
+  }
+}
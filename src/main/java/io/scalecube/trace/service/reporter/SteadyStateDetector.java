@@ -0,0 +1,182 @@
+package io.scalecube.trace.service.reporter;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+/**
+ * Decides when a warmup is over by watching the interval metrics of a reporter, see {@link
+ * AbstractPerformanceReporter#adaptiveWarmup(SteadyStateDetector)}. The steady state is reached
+ * when the coefficient of variation (standard deviation divided by mean) of the last {@code window}
+ * intervals drops to {@code maxCoefficientOfVariation} and, if enabled, the JIT compiler spent at
+ * most {@code maxCompilationRatio} of the window compiling. The warmup is cut at {@code
+ * maxWarmup} if the metrics never converge.
+ */
+public final class SteadyStateDetector {
+
+  public static final int DEFAULT_WINDOW = 5;
+  public static final double DEFAULT_MAX_COEFFICIENT_OF_VARIATION = 0.05;
+  public static final double DEFAULT_MAX_COMPILATION_RATIO = 0.01;
+  public static final Duration DEFAULT_MAX_WARMUP = Duration.ofMinutes(5);
+
+  private final CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+
+  private int window = DEFAULT_WINDOW;
+  private double maxCoefficientOfVariation = DEFAULT_MAX_COEFFICIENT_OF_VARIATION;
+  private double maxCompilationRatio = DEFAULT_MAX_COMPILATION_RATIO;
+  private boolean watchCompilation;
+  private Duration maxWarmup = DEFAULT_MAX_WARMUP;
+
+  private double[] values = new double[window];
+  private long[] compilationMillis = new long[window];
+  private long[] timestamps = new long[window];
+  private int count;
+  private long startNanos = System.nanoTime();
+  private double coefficientOfVariation = Double.NaN;
+  private volatile Duration warmupDuration;
+  private volatile boolean timedOut;
+
+  /**
+   * Setter for the number of intervals the coefficient of variation is computed over.
+   *
+   * @param window number of intervals, at least 2.
+   * @return SteadyStateDetector
+   */
+  public SteadyStateDetector window(int window) {
+    if (window < 2) {
+      throw new IllegalArgumentException("window must be at least 2");
+    }
+    this.window = window;
+    this.values = new double[window];
+    this.compilationMillis = new long[window];
+    this.timestamps = new long[window];
+    return this;
+  }
+
+  /**
+   * Setter for the coefficient of variation of the window which counts as steady.
+   *
+   * @param maxCoefficientOfVariation e.g. 0.05 for 5%.
+   * @return SteadyStateDetector
+   */
+  public SteadyStateDetector maxCoefficientOfVariation(double maxCoefficientOfVariation) {
+    this.maxCoefficientOfVariation = maxCoefficientOfVariation;
+    return this;
+  }
+
+  /**
+   * Also wait until the JIT compiler settles, i.e. spends at most {@code maxCompilationRatio} of
+   * the window compiling. Ignored if the JVM doesn't monitor compilation time.
+   *
+   * @param maxCompilationRatio e.g. 0.01 for 1% of the wall-clock time of the window.
+   * @return SteadyStateDetector
+   */
+  public SteadyStateDetector watchCompilation(double maxCompilationRatio) {
+    this.watchCompilation =
+        compilation != null && compilation.isCompilationTimeMonitoringSupported();
+    this.maxCompilationRatio = maxCompilationRatio;
+    return this;
+  }
+
+  /**
+   * Setter for the longest warmup, the steady state is assumed after it.
+   *
+   * @param maxWarmup longest warmup.
+   * @return SteadyStateDetector
+   */
+  public SteadyStateDetector maxWarmup(Duration maxWarmup) {
+    this.maxWarmup = maxWarmup;
+    return this;
+  }
+
+  /** Start a new warmup, called when the reporter starts. */
+  synchronized void reset() {
+    count = 0;
+    startNanos = System.nanoTime();
+    coefficientOfVariation = Double.NaN;
+    warmupDuration = null;
+    timedOut = false;
+  }
+
+  /**
+   * Add the metric of an interval.
+   *
+   * @param value metric of the interval, e.g. throughput or median latency.
+   * @return true if the steady state is reached, so far or with this interval.
+   */
+  synchronized boolean onInterval(double value) {
+    if (warmupDuration != null) {
+      return true;
+    }
+    long now = System.nanoTime();
+    int index = count++ % window;
+    values[index] = value;
+    timestamps[index] = now;
+    compilationMillis[index] = watchCompilation ? compilation.getTotalCompilationTime() : 0;
+
+    if (count >= window && isSteady(index)) {
+      warmupDuration = Duration.ofNanos(now - startNanos);
+      return true;
+    }
+    if (now - startNanos >= maxWarmup.toNanos()) {
+      warmupDuration = Duration.ofNanos(now - startNanos);
+      timedOut = true;
+      return true;
+    }
+    return false;
+  }
+
+  private boolean isSteady(int newest) {
+    double sum = 0;
+    for (double value : values) {
+      sum += value;
+    }
+    double mean = sum / window;
+    if (mean <= 0) {
+      // no samples, nothing to converge on
+      return false;
+    }
+    double squares = 0;
+    for (double value : values) {
+      squares += (value - mean) * (value - mean);
+    }
+    coefficientOfVariation = Math.sqrt(squares / (window - 1)) / mean;
+    if (coefficientOfVariation > maxCoefficientOfVariation) {
+      return false;
+    }
+    if (watchCompilation) {
+      int oldest = (newest + 1) % window;
+      double elapsedMillis = (timestamps[newest] - timestamps[oldest]) / 1e6;
+      long compiledMillis = compilationMillis[newest] - compilationMillis[oldest];
+      return elapsedMillis > 0 && compiledMillis <= maxCompilationRatio * elapsedMillis;
+    }
+    return true;
+  }
+
+  /**
+   * How long the warmup took.
+   *
+   * @return warmup duration, or null while warming up.
+   */
+  public Duration warmupDuration() {
+    return warmupDuration;
+  }
+
+  /**
+   * Whether the warmup was cut at {@code maxWarmup} without reaching the steady state.
+   *
+   * @return true if timed out.
+   */
+  public boolean timedOut() {
+    return timedOut;
+  }
+
+  /**
+   * Coefficient of variation of the last full window.
+   *
+   * @return coefficient of variation, NaN until the window is full.
+   */
+  public synchronized double coefficientOfVariation() {
+    return coefficientOfVariation;
+  }
+}
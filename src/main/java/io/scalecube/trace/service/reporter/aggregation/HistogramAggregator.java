@@ -0,0 +1,381 @@
+package io.scalecube.trace.service.reporter.aggregation;
+
+import io.scalecube.trace.service.reporter.latency.ConsoleReportingLatencyListener;
+import io.scalecube.trace.service.reporter.latency.LatencyListener;
+import io.scalecube.trace.service.reporter.throughput.ThroughputListener;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+import org.HdrHistogram.Histogram;
+import org.agrona.CloseHelper;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Receives interval histograms and rates shipped by {@link ShippingLatencyListener} and {@link
+ * ShippingThroughputListener} from several processes, merges them per series and per tick
+ * timestamp, and reports the global results through the normal listeners: merged histograms (true
+ * global percentiles) and summed rates. A tick is reported once all {@code expectedNodes} sent
+ * it, or once it's older than {@code lateness}; reports arriving after their tick was reported are
+ * dropped.
+ */
+public class HistogramAggregator implements AutoCloseable {
+
+  // type, timestamp and name length
+  private static final int MIN_FRAME_LENGTH = Byte.BYTES + Long.BYTES + Short.BYTES;
+  private static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+  private int port;
+  private int expectedNodes = 1;
+  private Duration lateness = Duration.ofSeconds(3);
+  private Function<String, LatencyListener> latencyListeners = series -> null;
+  private Function<String, ThroughputListener> throughputListeners = series -> null;
+
+  private final Map<String, Series> series = new HashMap<>();
+  private final List<SocketChannel> connections = new CopyOnWriteArrayList<>();
+  private ServerSocketChannel serverChannel;
+  private Disposable latenessCheck;
+  private long droppedReports;
+  private volatile boolean closed;
+
+  /**
+   * Port to listen on, 0 (the default) picks a free one, see {@link #address()}.
+   *
+   * @param port port
+   * @return HistogramAggregator
+   */
+  public HistogramAggregator port(int port) {
+    this.port = port;
+    return this;
+  }
+
+  /**
+   * Number of processes shipping every series.
+   *
+   * @param expectedNodes number of processes
+   * @return HistogramAggregator
+   */
+  public HistogramAggregator expectedNodes(int expectedNodes) {
+    this.expectedNodes = expectedNodes;
+    return this;
+  }
+
+  /**
+   * How long to wait for the reports of missing processes.
+   *
+   * @param lateness lateness
+   * @return HistogramAggregator
+   */
+  public HistogramAggregator lateness(Duration lateness) {
+    this.lateness = lateness;
+    return this;
+  }
+
+  /**
+   * Listener of the merged histograms of a series, e.g. {@code series -> new
+   * LatencyListenerImpl().publisher(c -> c.testName(series))}. Null to ignore the series.
+   *
+   * @param latencyListeners factory of listeners by series name
+   * @return HistogramAggregator
+   */
+  public HistogramAggregator latencyListener(Function<String, LatencyListener> latencyListeners) {
+    this.latencyListeners = latencyListeners;
+    return this;
+  }
+
+  /**
+   * Listener of the summed rates of a series. Null to ignore the series.
+   *
+   * @param throughputListeners factory of listeners by series name
+   * @return HistogramAggregator
+   */
+  public HistogramAggregator throughputListener(
+      Function<String, ThroughputListener> throughputListeners) {
+    this.throughputListeners = throughputListeners;
+    return this;
+  }
+
+  /**
+   * Start listening.
+   *
+   * @return HistogramAggregator
+   */
+  public HistogramAggregator start() {
+    try {
+      serverChannel = ServerSocketChannel.open();
+      serverChannel.bind(new InetSocketAddress(port));
+    } catch (IOException e) {
+      throw Exceptions.propagate(e);
+    }
+    Thread acceptor = new Thread(this::accept, "histogram-aggregator-acceptor");
+    acceptor.setDaemon(true);
+    acceptor.start();
+    Duration checkInterval = lateness.dividedBy(4);
+    latenessCheck =
+        Flux.interval(checkInterval, checkInterval, Schedulers.single())
+            .subscribe(i -> onLatenessCheck(), Throwable::printStackTrace);
+    return this;
+  }
+
+  /**
+   * Address the aggregator listens on.
+   *
+   * @return address
+   */
+  public InetSocketAddress address() {
+    try {
+      return (InetSocketAddress) serverChannel.getLocalAddress();
+    } catch (IOException e) {
+      throw Exceptions.propagate(e);
+    }
+  }
+
+  /**
+   * Number of reports dropped since they arrived after their tick was reported.
+   *
+   * @return dropped reports.
+   */
+  public synchronized long droppedReports() {
+    return droppedReports;
+  }
+
+  static long currentTick() {
+    return System.currentTimeMillis() / 1000 * 1000;
+  }
+
+  private void accept() {
+    while (!closed) {
+      try {
+        SocketChannel channel = serverChannel.accept();
+        connections.add(channel);
+        Thread reader = new Thread(() -> read(channel), "histogram-aggregator-reader");
+        reader.setDaemon(true);
+        reader.start();
+      } catch (IOException e) {
+        if (!closed) {
+          e.printStackTrace();
+        }
+      }
+    }
+  }
+
+  private void read(SocketChannel channel) {
+    ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+    ByteBuffer frame = ByteBuffer.allocate(64 * 1024);
+    try {
+      while (!closed) {
+        ((Buffer) header).clear();
+        readFully(channel, header);
+        int length = header.getInt(0);
+        if (length < MIN_FRAME_LENGTH || length > MAX_FRAME_LENGTH) {
+          throw new IOException("Invalid frame length: " + length);
+        }
+        if (frame.capacity() < length) {
+          frame = ByteBuffer.allocate(Integer.highestOneBit(length) << 1);
+        }
+        ((Buffer) frame).clear();
+        ((Buffer) frame).limit(length);
+        readFully(channel, frame);
+        ((Buffer) frame).flip();
+        onFrame(frame);
+      }
+    } catch (EOFException e) {
+      // shipper closed the connection
+    } catch (Exception e) {
+      if (!closed) {
+        e.printStackTrace();
+      }
+    } finally {
+      connections.remove(channel);
+      CloseHelper.quietClose(channel);
+    }
+  }
+
+  private static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) {
+        throw new EOFException();
+      }
+    }
+  }
+
+  private void onFrame(ByteBuffer frame) throws DataFormatException {
+    byte type = frame.get();
+    long timestamp = frame.getLong();
+    byte[] name = new byte[frame.getShort()];
+    frame.get(name);
+    String seriesName = new String(name, StandardCharsets.UTF_8);
+    if (type == MetricShipper.LATENCY) {
+      Histogram histogram = Histogram.decodeFromCompressedByteBuffer(frame, 0);
+      onLatency(seriesName, timestamp, histogram);
+    } else if (type == MetricShipper.THROUGHPUT) {
+      onThroughput(seriesName, timestamp, frame.getDouble(), frame.getDouble());
+    } else {
+      throw new IllegalStateException("Unknown frame type: " + type);
+    }
+  }
+
+  private synchronized void onLatency(String name, long timestamp, Histogram histogram) {
+    Series s = series(MetricShipper.LATENCY, name);
+    Tick tick = s.tick(timestamp);
+    if (tick == null) {
+      droppedReports++;
+      return;
+    }
+    if (tick.histogram == null) {
+      // decoded histograms don't resize, the ones of other nodes may have a wider range
+      tick.histogram = new Histogram(histogram.getNumberOfSignificantValueDigits());
+    }
+    tick.histogram.add(histogram);
+    if (++tick.nodes >= expectedNodes) {
+      s.reportUpTo(timestamp);
+    }
+  }
+
+  private synchronized void onThroughput(
+      String name, long timestamp, double messagesPerSec, double bytesPerSec) {
+    Series s = series(MetricShipper.THROUGHPUT, name);
+    Tick tick = s.tick(timestamp);
+    if (tick == null) {
+      droppedReports++;
+      return;
+    }
+    tick.messagesPerSec += messagesPerSec;
+    tick.bytesPerSec += bytesPerSec;
+    if (++tick.nodes >= expectedNodes) {
+      s.reportUpTo(timestamp);
+    }
+  }
+
+  private Series series(byte type, String name) {
+    return series.computeIfAbsent(type + name, k -> new Series(type, name));
+  }
+
+  private synchronized void onLatenessCheck() {
+    long deadline = System.currentTimeMillis() - lateness.toMillis();
+    for (Series s : series.values()) {
+      s.reportUpTo(deadline);
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    if (latenessCheck != null) {
+      latenessCheck.dispose();
+    }
+    CloseHelper.quietClose(serverChannel);
+    CloseHelper.quietCloseAll(connections);
+    List<AutoCloseable> listeners = new ArrayList<>();
+    synchronized (this) {
+      for (Series s : series.values()) {
+        s.reportUpTo(Long.MAX_VALUE);
+        s.terminate();
+        listeners.add(s.latencyListener);
+        listeners.add(s.throughputListener);
+      }
+    }
+    CloseHelper.quietCloseAll(listeners);
+  }
+
+  private static final class Tick {
+    private int nodes;
+    private Histogram histogram;
+    private double messagesPerSec;
+    private double bytesPerSec;
+  }
+
+  private final class Series {
+
+    private final TreeMap<Long, Tick> ticks = new TreeMap<>();
+    private final LatencyListener latencyListener;
+    private final ThroughputListener throughputListener;
+    private Histogram accumulatedHistogram;
+    private long lastReported = Long.MIN_VALUE;
+
+    private Series(byte type, String name) {
+      this.latencyListener = type == MetricShipper.LATENCY ? latencyListeners.apply(name) : null;
+      this.throughputListener =
+          type == MetricShipper.THROUGHPUT ? throughputListeners.apply(name) : null;
+    }
+
+    private Tick tick(long timestamp) {
+      if (timestamp <= lastReported) {
+        return null;
+      }
+      return ticks.computeIfAbsent(timestamp, t -> new Tick());
+    }
+
+    private void reportUpTo(long timestamp) {
+      Iterator<Entry<Long, Tick>> iterator = ticks.headMap(timestamp, true).entrySet().iterator();
+      while (iterator.hasNext()) {
+        Entry<Long, Tick> entry = iterator.next();
+        iterator.remove();
+        lastReported = entry.getKey();
+        report(entry.getKey(), entry.getValue());
+      }
+    }
+
+    private void report(long timestamp, Tick tick) {
+      try {
+        if (latencyListener != null) {
+          if (accumulatedHistogram == null) {
+            accumulatedHistogram =
+                new Histogram(tick.histogram.getNumberOfSignificantValueDigits());
+          }
+          accumulatedHistogram.add(tick.histogram);
+          latencyListener.onReport(timestamp, tick.histogram);
+        }
+        if (throughputListener != null) {
+          throughputListener.onReport(timestamp, tick.messagesPerSec, tick.bytesPerSec);
+        }
+      } catch (Exception e) {
+        e.printStackTrace();
+      }
+    }
+
+    private void terminate() {
+      if (latencyListener != null && accumulatedHistogram != null) {
+        latencyListener.onTerminate(accumulatedHistogram);
+      }
+    }
+  }
+
+  /**
+   * Run an aggregator printing merged percentiles to the console.
+   *
+   * @param args port and number of expected nodes
+   * @throws InterruptedException if interrupted
+   */
+  public static void main(String[] args) throws InterruptedException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+    int nodes = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+    HistogramAggregator aggregator =
+        new HistogramAggregator()
+            .port(port)
+            .expectedNodes(nodes)
+            .latencyListener(series -> new ConsoleReportingLatencyListener())
+            .start();
+    System.out.println("Aggregating " + nodes + " nodes on " + aggregator.address());
+    Runtime.getRuntime().addShutdownHook(new Thread(aggregator::close));
+    Thread.currentThread().join();
+  }
+}
@@ -0,0 +1,127 @@
+package io.scalecube.trace.service.reporter.aggregation;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.agrona.CloseHelper;
+
+/**
+ * Ships interval histograms and rates to a {@link HistogramAggregator} over TCP. The connection is
+ * opened lazily and reopened after a failure, reports which can't be sent are dropped and
+ * counted. Connecting is bounded by a timeout and retried with an exponential backoff, reports
+ * shipped before the next attempt are dropped right away, so an unreachable aggregator doesn't
+ * stall the reporting thread. Only the first failure of an outage is logged.
+ *
+ * <p>Frame: {@code int length, byte type, long timestamp, short nameLength, name (utf-8)},
+ * followed by a compressed histogram for latency or by {@code double messagesPerSec, double
+ * bytesPerSec} for throughput.
+ */
+final class MetricShipper implements AutoCloseable {
+
+  static final byte LATENCY = 1;
+  static final byte THROUGHPUT = 2;
+
+  private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+  private static final long MIN_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+  private final InetSocketAddress address;
+  private ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+  private SocketChannel channel;
+  private long dropped;
+  // zero while the aggregator is reachable
+  private long backoffNanos;
+  private long reconnectTime;
+
+  MetricShipper(InetSocketAddress address) {
+    this.address = address;
+  }
+
+  synchronized void shipLatency(String series, long timestamp, Histogram histogram) {
+    byte[] name = series.getBytes(StandardCharsets.UTF_8);
+    ensure(histogram.getNeededByteBufferCapacity() + name.length + 32);
+    header(LATENCY, timestamp, name);
+    histogram.encodeIntoCompressedByteBuffer(buffer);
+    send();
+  }
+
+  synchronized void shipThroughput(
+      String series, long timestamp, double messagesPerSec, double bytesPerSec) {
+    byte[] name = series.getBytes(StandardCharsets.UTF_8);
+    ensure(name.length + 32);
+    header(THROUGHPUT, timestamp, name);
+    buffer.putDouble(messagesPerSec);
+    buffer.putDouble(bytesPerSec);
+    send();
+  }
+
+  private void ensure(int capacity) {
+    if (buffer.capacity() < capacity) {
+      buffer = ByteBuffer.allocateDirect(Integer.highestOneBit(capacity) << 1);
+    }
+  }
+
+  private void header(byte type, long timestamp, byte[] name) {
+    // Buffer casts keep the bytecode compatible with java 8
+    ((Buffer) buffer).clear();
+    ((Buffer) buffer).position(Integer.BYTES);
+    buffer.put(type);
+    buffer.putLong(timestamp);
+    buffer.putShort((short) name.length);
+    buffer.put(name);
+  }
+
+  private void send() {
+    buffer.putInt(0, buffer.position() - Integer.BYTES);
+    ((Buffer) buffer).flip();
+    if (channel == null && backoffNanos > 0 && System.nanoTime() - reconnectTime < 0) {
+      dropped++;
+      return;
+    }
+    try {
+      if (channel == null) {
+        channel = connect();
+      }
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      backoffNanos = 0;
+    } catch (IOException e) {
+      dropped++;
+      CloseHelper.quietClose(channel);
+      channel = null;
+      if (backoffNanos == 0) {
+        System.err.println(
+            "Failed to ship report to " + address + ", dropping until it is reachable: " + e);
+      }
+      backoffNanos = Math.min(Math.max(backoffNanos * 2, MIN_BACKOFF_NANOS), MAX_BACKOFF_NANOS);
+      reconnectTime = System.nanoTime() + backoffNanos;
+    }
+  }
+
+  private SocketChannel connect() throws IOException {
+    SocketChannel result = SocketChannel.open();
+    try {
+      result.socket().connect(address, CONNECT_TIMEOUT_MILLIS);
+    } catch (IOException e) {
+      CloseHelper.quietClose(result);
+      throw e;
+    }
+    return result;
+  }
+
+  synchronized long droppedReports() {
+    return dropped;
+  }
+
+  @Override
+  public synchronized void close() {
+    CloseHelper.quietClose(channel);
+    channel = null;
+  }
+}
@@ -0,0 +1,57 @@
+package io.scalecube.trace.service.reporter.aggregation;
+
+import io.scalecube.trace.service.reporter.latency.LatencyListener;
+import java.net.InetSocketAddress;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency listener which ships the interval histograms to a {@link HistogramAggregator}, which
+ * merges them with the histograms of other processes into global percentiles. Reporters should
+ * use a {@link io.scalecube.trace.service.reporter.ReportingClock}, so the histograms of all
+ * processes carry the same tick timestamps; without it the time is rounded to whole seconds.
+ */
+public class ShippingLatencyListener implements LatencyListener {
+
+  private final MetricShipper shipper;
+  private final String series;
+
+  /**
+   * Create shipping listener.
+   *
+   * @param aggregator address of the aggregator.
+   * @param series name of the series, the same in all processes.
+   */
+  public ShippingLatencyListener(InetSocketAddress aggregator, String series) {
+    this.shipper = new MetricShipper(aggregator);
+    this.series = series;
+  }
+
+  @Override
+  public void onReport(Histogram intervalHistogram) {
+    onReport(HistogramAggregator.currentTick(), intervalHistogram);
+  }
+
+  @Override
+  public void onReport(long timestamp, Histogram intervalHistogram) {
+    shipper.shipLatency(series, timestamp, intervalHistogram);
+  }
+
+  @Override
+  public void onTerminate(Histogram accumulatedHistogram) {
+    // aggregator accumulates on its own
+  }
+
+  /**
+   * Number of reports which couldn't be shipped.
+   *
+   * @return dropped reports.
+   */
+  public long droppedReports() {
+    return shipper.droppedReports();
+  }
+
+  @Override
+  public void close() {
+    shipper.close();
+  }
+}
@@ -0,0 +1,49 @@
+package io.scalecube.trace.service.reporter.aggregation;
+
+import io.scalecube.trace.service.reporter.throughput.ThroughputListener;
+import java.net.InetSocketAddress;
+
+/**
+ * Throughput listener which ships the rates to a {@link HistogramAggregator}, which sums them up
+ * with the rates of other processes, see {@link ShippingLatencyListener}.
+ */
+public class ShippingThroughputListener implements ThroughputListener {
+
+  private final MetricShipper shipper;
+  private final String series;
+
+  /**
+   * Create shipping listener.
+   *
+   * @param aggregator address of the aggregator.
+   * @param series name of the series, the same in all processes.
+   */
+  public ShippingThroughputListener(InetSocketAddress aggregator, String series) {
+    this.shipper = new MetricShipper(aggregator);
+    this.series = series;
+  }
+
+  @Override
+  public void onReport(double messagesPerSec, double bytesPerSec) {
+    onReport(HistogramAggregator.currentTick(), messagesPerSec, bytesPerSec);
+  }
+
+  @Override
+  public void onReport(long timestamp, double messagesPerSec, double bytesPerSec) {
+    shipper.shipThroughput(series, timestamp, messagesPerSec, bytesPerSec);
+  }
+
+  /**
+   * Number of reports which couldn't be shipped.
+   *
+   * @return dropped reports.
+   */
+  public long droppedReports() {
+    return shipper.droppedReports();
+  }
+
+  @Override
+  public void close() {
+    shipper.close();
+  }
+}
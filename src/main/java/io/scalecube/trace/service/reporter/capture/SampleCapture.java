@@ -0,0 +1,177 @@
+package io.scalecube.trace.service.reporter.capture;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.agrona.IoUtil;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.SleepingMillisIdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.ManyToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
+
+/**
+ * Captures raw {@code (timestamp, value)} samples, e.g. latencies of single requests, into a
+ * binary file, see {@link SampleCaptureReader}. Recording threads only claim a slot in a {@link
+ * ManyToOneRingBuffer}; a background thread moves the samples to a memory-mapped file which is
+ * written circularly, so it keeps the last {@code capacity} samples. Samples are dropped, not
+ * waited for, when the ring buffer is full.
+ *
+ * <p>File layout: a {@value #HEADER_LENGTH} bytes header ({@code int version, int capacity, long
+ * startEpochMillis, long startNanos, long retentionNanos, long position, long dropped}) followed
+ * by {@code capacity} records of {@code long nanoTime, long value}. {@code position} is the number
+ * of records written so far, the record {@code i} is at {@code i % capacity}.
+ */
+public final class SampleCapture implements AutoCloseable {
+
+  public static final int VERSION = 1;
+  public static final int HEADER_LENGTH = 64;
+  public static final int RECORD_LENGTH = 16;
+  public static final int DEFAULT_RING_BUFFER_LENGTH = 1 << 20;
+  // records are mapped by one buffer, its length is an int
+  public static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_LENGTH) / RECORD_LENGTH;
+
+  static final int VERSION_OFFSET = 0;
+  static final int CAPACITY_OFFSET = 4;
+  static final int START_EPOCH_MILLIS_OFFSET = 8;
+  static final int START_NANOS_OFFSET = 16;
+  static final int RETENTION_NANOS_OFFSET = 24;
+  static final int POSITION_OFFSET = 32;
+  static final int DROPPED_OFFSET = 40;
+
+  private static final int SAMPLE_TYPE_ID = 1;
+  private static final int DRAIN_LIMIT = 4096;
+
+  private final ManyToOneRingBuffer ringBuffer;
+  private final MappedByteBuffer mappedBuffer;
+  private final UnsafeBuffer header;
+  private final UnsafeBuffer records;
+  private final int capacity;
+  private final AtomicLong dropped = new AtomicLong();
+  private final AgentRunner runner;
+  private long position;
+
+  /**
+   * Create (or overwrite) the capture file and start the drainer thread. Readers keep all the
+   * samples the file holds.
+   *
+   * @param file capture file.
+   * @param capacity number of the last samples the file keeps, at most {@link #MAX_CAPACITY}.
+   */
+  public SampleCapture(Path file, int capacity) {
+    this(file, capacity, null);
+  }
+
+  /**
+   * Create (or overwrite) the capture file and start the drainer thread.
+   *
+   * @param file capture file.
+   * @param capacity number of the last samples the file keeps, bounds the size of the file; at
+   *     most {@link #MAX_CAPACITY}.
+   * @param retention readers skip the samples older than {@code retention} before the newest one,
+   *     null to keep all of them.
+   */
+  public SampleCapture(Path file, int capacity, Duration retention) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    if (capacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException("capacity must be at most " + MAX_CAPACITY);
+    }
+    this.capacity = capacity;
+    this.ringBuffer =
+        new ManyToOneRingBuffer(
+            new UnsafeBuffer(
+                ByteBuffer.allocateDirect(
+                    DEFAULT_RING_BUFFER_LENGTH + RingBufferDescriptor.TRAILER_LENGTH)));
+    File location = file.toFile();
+    IoUtil.deleteIfExists(location);
+    this.mappedBuffer = IoUtil.mapNewFile(location, HEADER_LENGTH + capacity * RECORD_LENGTH);
+    this.header = new UnsafeBuffer(mappedBuffer, 0, HEADER_LENGTH);
+    this.records = new UnsafeBuffer(mappedBuffer, HEADER_LENGTH, capacity * RECORD_LENGTH);
+    header.putInt(CAPACITY_OFFSET, capacity);
+    header.putLong(START_EPOCH_MILLIS_OFFSET, System.currentTimeMillis());
+    header.putLong(START_NANOS_OFFSET, System.nanoTime());
+    header.putLong(RETENTION_NANOS_OFFSET, retention != null ? retention.toNanos() : 0);
+    // version goes last, readers check it
+    header.putIntVolatile(VERSION_OFFSET, VERSION);
+    this.runner =
+        new AgentRunner(
+            new SleepingMillisIdleStrategy(1), Throwable::printStackTrace, null, new Drainer());
+    AgentRunner.startOnThread(runner);
+  }
+
+  /**
+   * Capture a sample, timestamped now. Safe to call from any thread.
+   *
+   * @param value sample value, e.g. latency in nanos.
+   * @return false if the sample was dropped because the drainer fell behind.
+   */
+  public boolean record(long value) {
+    int index = ringBuffer.tryClaim(SAMPLE_TYPE_ID, RECORD_LENGTH);
+    if (index < 0) {
+      dropped.incrementAndGet();
+      return false;
+    }
+    MutableDirectBuffer buffer = ringBuffer.buffer();
+    buffer.putLong(index, System.nanoTime());
+    buffer.putLong(index + 8, value);
+    ringBuffer.commit(index);
+    return true;
+  }
+
+  /**
+   * Number of samples dropped because the ring buffer was full.
+   *
+   * @return dropped samples.
+   */
+  public long droppedSamples() {
+    return dropped.get();
+  }
+
+  /** Write out the pending samples, stop the drainer thread and unmap the file. */
+  @Override
+  public void close() {
+    runner.close();
+  }
+
+  private final class Drainer implements Agent {
+
+    @Override
+    public int doWork() {
+      int count =
+          ringBuffer.read(
+              (msgTypeId, buffer, index, length) -> {
+                int offset = (int) (position++ % capacity) * RECORD_LENGTH;
+                records.putLong(offset, buffer.getLong(index));
+                records.putLong(offset + 8, buffer.getLong(index + 8));
+              },
+              DRAIN_LIMIT);
+      if (count > 0) {
+        header.putLong(DROPPED_OFFSET, dropped.get());
+        header.putLongOrdered(POSITION_OFFSET, position);
+      }
+      return count;
+    }
+
+    @Override
+    public void onClose() {
+      while (doWork() > 0) {
+        // drain pending samples
+      }
+      header.putLongOrdered(DROPPED_OFFSET, dropped.get());
+      mappedBuffer.force();
+      IoUtil.unmap(mappedBuffer);
+    }
+
+    @Override
+    public String roleName() {
+      return "sample-capture";
+    }
+  }
+}
@@ -0,0 +1,189 @@
+package io.scalecube.trace.service.reporter.capture;
+
+import static io.scalecube.trace.service.reporter.capture.SampleCapture.CAPACITY_OFFSET;
+import static io.scalecube.trace.service.reporter.capture.SampleCapture.DROPPED_OFFSET;
+import static io.scalecube.trace.service.reporter.capture.SampleCapture.HEADER_LENGTH;
+import static io.scalecube.trace.service.reporter.capture.SampleCapture.MAX_CAPACITY;
+import static io.scalecube.trace.service.reporter.capture.SampleCapture.POSITION_OFFSET;
+import static io.scalecube.trace.service.reporter.capture.SampleCapture.RECORD_LENGTH;
+import static io.scalecube.trace.service.reporter.capture.SampleCapture.RETENTION_NANOS_OFFSET;
+import static io.scalecube.trace.service.reporter.capture.SampleCapture.START_EPOCH_MILLIS_OFFSET;
+import static io.scalecube.trace.service.reporter.capture.SampleCapture.START_NANOS_OFFSET;
+import static io.scalecube.trace.service.reporter.capture.SampleCapture.VERSION;
+import static io.scalecube.trace.service.reporter.capture.SampleCapture.VERSION_OFFSET;
+
+import io.scalecube.trace.service.reporter.CsvChannelWriter;
+import io.scalecube.trace.service.reporter.CsvFlushPolicy;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Reads a {@link SampleCapture} file, also while it is being written by another process; then the
+ * oldest samples may be overwritten while they are read. Run as
+ * {@code java -cp trace-reporter.jar
+ * io.scalecube.trace.service.reporter.capture.SampleCaptureReader <file> <csv> [fromMillis
+ * toMillis]} to export the samples to CSV.
+ */
+public final class SampleCaptureReader implements AutoCloseable {
+
+  /**
+   * Callback for every captured sample.
+   */
+  @FunctionalInterface
+  public interface SampleHandler {
+
+    /**
+     * Handle a sample.
+     *
+     * @param epochNanos time of the sample since the epoch, in nanos.
+     * @param value sample value.
+     */
+    void onSample(long epochNanos, long value);
+  }
+
+  private final MappedByteBuffer mappedBuffer;
+  private final UnsafeBuffer header;
+  private final UnsafeBuffer records;
+  private final int capacity;
+  private final long startEpochNanos;
+  private final long startNanos;
+  private final long retentionNanos;
+
+  /**
+   * Map an existing capture file for reading, read-only.
+   *
+   * @param file capture file.
+   */
+  public SampleCaptureReader(Path file) {
+    this.mappedBuffer = IoUtil.mapExistingFile(file.toFile(), MapMode.READ_ONLY, "samples");
+    this.header = new UnsafeBuffer(mappedBuffer, 0, HEADER_LENGTH);
+    int version = header.getIntVolatile(VERSION_OFFSET);
+    if (version != VERSION) {
+      IoUtil.unmap(mappedBuffer);
+      throw new IllegalStateException("Unsupported capture file version: " + version);
+    }
+    this.capacity = header.getInt(CAPACITY_OFFSET);
+    if (capacity <= 0
+        || capacity > MAX_CAPACITY
+        || mappedBuffer.capacity() < HEADER_LENGTH + capacity * RECORD_LENGTH) {
+      IoUtil.unmap(mappedBuffer);
+      throw new IllegalStateException("Invalid capacity of capture file: " + capacity);
+    }
+    this.records = new UnsafeBuffer(mappedBuffer, HEADER_LENGTH, capacity * RECORD_LENGTH);
+    this.startEpochNanos =
+        TimeUnit.MILLISECONDS.toNanos(header.getLong(START_EPOCH_MILLIS_OFFSET));
+    this.startNanos = header.getLong(START_NANOS_OFFSET);
+    this.retentionNanos = header.getLong(RETENTION_NANOS_OFFSET);
+  }
+
+  /**
+   * Number of samples captured so far, including the ones already overwritten.
+   *
+   * @return captured samples.
+   */
+  public long position() {
+    return header.getLongVolatile(POSITION_OFFSET);
+  }
+
+  /**
+   * Number of samples the writer dropped because it fell behind.
+   *
+   * @return dropped samples.
+   */
+  public long droppedSamples() {
+    return header.getLongVolatile(DROPPED_OFFSET);
+  }
+
+  /**
+   * Visit the retained samples in the order they were captured.
+   *
+   * @param handler sample handler.
+   * @return number of visited samples.
+   */
+  public int forEach(SampleHandler handler) {
+    return forEach(Long.MIN_VALUE, Long.MAX_VALUE, handler);
+  }
+
+  /**
+   * Visit the retained samples of a time slice in the order they were captured.
+   *
+   * @param fromEpochNanos start of the slice, inclusive.
+   * @param toEpochNanos end of the slice, exclusive.
+   * @param handler sample handler.
+   * @return number of visited samples.
+   */
+  public int forEach(long fromEpochNanos, long toEpochNanos, SampleHandler handler) {
+    long end = position();
+    long start = Math.max(0, end - capacity);
+    if (start == end) {
+      return 0;
+    }
+    long from = fromEpochNanos;
+    if (retentionNanos > 0) {
+      long newest = epochNanos(records.getLong(offset(end - 1)));
+      from = Math.max(from, newest - retentionNanos);
+    }
+    int count = 0;
+    for (long i = start; i < end; i++) {
+      int offset = offset(i);
+      long epochNanos = epochNanos(records.getLong(offset));
+      if (epochNanos >= from && epochNanos < toEpochNanos) {
+        handler.onSample(epochNanos, records.getLong(offset + 8));
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Export the retained samples of a time slice to CSV, a {@code timestamp,value} line per sample
+   * with the timestamp in nanos since the epoch.
+   *
+   * @param fileName CSV file name.
+   * @param fromEpochNanos start of the slice, inclusive.
+   * @param toEpochNanos end of the slice, exclusive.
+   * @return number of exported samples.
+   */
+  public int exportCsv(String fileName, long fromEpochNanos, long toEpochNanos) {
+    try (CsvChannelWriter writer = new CsvChannelWriter(fileName, CsvFlushPolicy.onClose())) {
+      writer.column("timestamp").column("value").endLine();
+      return forEach(
+          fromEpochNanos,
+          toEpochNanos,
+          (epochNanos, value) -> writer.column(epochNanos).column(value).endLine());
+    }
+  }
+
+  private long epochNanos(long nanoTime) {
+    return startEpochNanos + (nanoTime - startNanos);
+  }
+
+  private int offset(long index) {
+    return (int) (index % capacity) * RECORD_LENGTH;
+  }
+
+  @Override
+  public void close() {
+    IoUtil.unmap(mappedBuffer);
+  }
+
+  /**
+   * Export a capture file to CSV.
+   *
+   * @param args capture file, CSV file and optionally the slice as epoch millis {@code from to}
+   */
+  public static void main(String[] args) {
+    long from = args.length > 3 ? TimeUnit.MILLISECONDS.toNanos(Long.parseLong(args[2])) : 0;
+    long to =
+        args.length > 3 ? TimeUnit.MILLISECONDS.toNanos(Long.parseLong(args[3])) : Long.MAX_VALUE;
+    try (SampleCaptureReader reader = new SampleCaptureReader(Paths.get(args[0]))) {
+      int count = reader.exportCsv(args[1], from, to);
+      System.out.println("Exported " + count + " samples to " + args[1]);
+    }
+  }
+}
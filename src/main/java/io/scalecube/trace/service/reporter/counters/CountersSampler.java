@@ -0,0 +1,85 @@
+package io.scalecube.trace.service.reporter.counters;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.concurrent.status.CountersReader;
+
+/**
+ * Samples {@link SharedCounters} of another process and prints totals and rates per second. Runs
+ * as a separate process: {@code java -cp trace-reporter.jar
+ * io.scalecube.trace.service.reporter.counters.CountersSampler <file> [intervalMillis]}.
+ */
+public final class CountersSampler implements AutoCloseable {
+
+  private final SharedCounters counters;
+  private final Int2ObjectHashMap<long[]> lastValues = new Int2ObjectHashMap<>();
+  private long lastNanos = System.nanoTime();
+
+  public CountersSampler(Path file) {
+    this.counters = SharedCounters.open(file);
+  }
+
+  /**
+   * Print a line per allocated counter: label, total, rate per second since the previous sample.
+   *
+   * @param out stream to print to
+   */
+  public void sample(PrintStream out) {
+    long now = System.nanoTime();
+    double seconds = (now - lastNanos) / 1e9;
+    lastNanos = now;
+    CountersReader reader = counters.reader();
+    reader.forEach(
+        (counterId, label) -> {
+          long value = reader.getCounterValue(counterId);
+          long[] last = lastValues.computeIfAbsent(counterId, id -> new long[] {value});
+          double rate = (value - last[0]) / seconds;
+          last[0] = value;
+          out.println(String.format(Locale.ROOT, "%s: total %d, %.1f/sec", label, value, rate));
+        });
+  }
+
+  /**
+   * Current value of a counter.
+   *
+   * @param label label of the counter
+   * @return value, or -1 if there is no such counter.
+   */
+  public long value(String label) {
+    CountersReader reader = counters.reader();
+    long[] result = {-1};
+    reader.forEach(
+        (counterId, counterLabel) -> {
+          if (counterLabel.equals(label)) {
+            result[0] = reader.getCounterValue(counterId);
+          }
+        });
+    return result[0];
+  }
+
+  @Override
+  public void close() {
+    counters.close();
+  }
+
+  /**
+   * Sample counters file until interrupted.
+   *
+   * @param args counters file and sampling interval in millis (1000 by default)
+   * @throws InterruptedException if interrupted
+   */
+  public static void main(String[] args) throws InterruptedException {
+    long intervalMillis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+    try (CountersSampler sampler = new CountersSampler(Paths.get(args[0]))) {
+      while (!Thread.currentThread().isInterrupted()) {
+        TimeUnit.MILLISECONDS.sleep(intervalMillis);
+        sampler.sample(System.out);
+        System.out.println();
+      }
+    }
+  }
+}
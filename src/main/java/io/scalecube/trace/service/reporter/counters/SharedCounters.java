@@ -0,0 +1,209 @@
+package io.scalecube.trace.service.reporter.counters;
+
+import static org.agrona.concurrent.status.CountersReader.COUNTER_LENGTH;
+import static org.agrona.concurrent.status.CountersReader.METADATA_LENGTH;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.agrona.concurrent.status.CountersManager;
+import org.agrona.concurrent.status.CountersReader;
+
+/**
+ * Counters kept in a memory-mapped file (Agrona {@link CountersManager} layout), so other
+ * processes can sample them, see {@link CountersSampler}, without any reporting thread or I/O in
+ * the measured process.
+ *
+ * <p>File layout: a {@value #HEADER_LENGTH} bytes header ({@code int version, int
+ * metadataLength, int valuesLength, long startTimestamp}) followed by the counters metadata and
+ * values buffers.
+ */
+public final class SharedCounters implements AutoCloseable {
+
+  public static final int VERSION = 1;
+  public static final int HEADER_LENGTH = 64;
+  public static final int DEFAULT_MAX_COUNTERS = 1024;
+  public static final Duration DEFAULT_OPEN_TIMEOUT = Duration.ofSeconds(5);
+
+  public static final int MESSAGES_TYPE_ID = 1;
+  public static final int BYTES_TYPE_ID = 2;
+
+  private static final int VERSION_OFFSET = 0;
+  private static final int METADATA_LENGTH_OFFSET = 4;
+  private static final int VALUES_LENGTH_OFFSET = 8;
+  private static final int START_TIMESTAMP_OFFSET = 16;
+
+  private final MappedByteBuffer mappedBuffer;
+  private final CountersReader reader;
+  private final CountersManager manager;
+  private final long startTimestamp;
+  // counters handed out and not closed yet, the file stays mapped until they are
+  private int openCounters;
+  private boolean closed;
+
+  private SharedCounters(MappedByteBuffer mappedBuffer, boolean writable) {
+    this.mappedBuffer = mappedBuffer;
+    UnsafeBuffer header = new UnsafeBuffer(mappedBuffer, 0, HEADER_LENGTH);
+    int metadataLength = header.getInt(METADATA_LENGTH_OFFSET);
+    int valuesLength = header.getInt(VALUES_LENGTH_OFFSET);
+    this.startTimestamp = header.getLong(START_TIMESTAMP_OFFSET);
+    UnsafeBuffer metadata = new UnsafeBuffer(mappedBuffer, HEADER_LENGTH, metadataLength);
+    UnsafeBuffer values =
+        new UnsafeBuffer(mappedBuffer, HEADER_LENGTH + metadataLength, valuesLength);
+    this.manager = writable ? new CountersManager(metadata, values) : null;
+    this.reader = writable ? manager : new CountersReader(metadata, values);
+  }
+
+  /**
+   * Create (or overwrite) the counters file with {@link #DEFAULT_MAX_COUNTERS}.
+   *
+   * @param file counters file, e.g. on {@code /dev/shm}.
+   * @return counters
+   */
+  public static SharedCounters create(Path file) {
+    return create(file, DEFAULT_MAX_COUNTERS);
+  }
+
+  /**
+   * Create (or overwrite) the counters file.
+   *
+   * @param file counters file, e.g. on {@code /dev/shm}.
+   * @param maxCounters max number of counters.
+   * @return counters
+   */
+  public static SharedCounters create(Path file, int maxCounters) {
+    int metadataLength = maxCounters * METADATA_LENGTH;
+    int valuesLength = maxCounters * COUNTER_LENGTH;
+    File location = file.toFile();
+    IoUtil.deleteIfExists(location);
+    MappedByteBuffer buffer =
+        IoUtil.mapNewFile(location, (long) HEADER_LENGTH + metadataLength + valuesLength);
+    UnsafeBuffer header = new UnsafeBuffer(buffer, 0, HEADER_LENGTH);
+    header.putInt(METADATA_LENGTH_OFFSET, metadataLength);
+    header.putInt(VALUES_LENGTH_OFFSET, valuesLength);
+    header.putLong(START_TIMESTAMP_OFFSET, System.currentTimeMillis());
+    // version goes last, readers wait for it
+    header.putIntVolatile(VERSION_OFFSET, VERSION);
+    return new SharedCounters(buffer, true);
+  }
+
+  /**
+   * Map an existing counters file for reading, waits up to {@link #DEFAULT_OPEN_TIMEOUT} for the
+   * file being created.
+   *
+   * @param file counters file.
+   * @return read-only counters, see {@link #reader()}.
+   */
+  public static SharedCounters open(Path file) {
+    return open(file, DEFAULT_OPEN_TIMEOUT);
+  }
+
+  /**
+   * Map an existing counters file for reading. The file is mapped read-only, if it is still being
+   * created (the version isn't set yet) it's mapped again until the timeout elapses.
+   *
+   * @param file counters file.
+   * @param timeout how long to wait for the file being created.
+   * @return read-only counters, see {@link #reader()}.
+   */
+  public static SharedCounters open(Path file, Duration timeout) {
+    File location = file.toFile();
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (true) {
+      if (location.length() >= HEADER_LENGTH) {
+        MappedByteBuffer buffer = IoUtil.mapExistingFile(location, MapMode.READ_ONLY, "counters");
+        int version = new UnsafeBuffer(buffer, 0, HEADER_LENGTH).getIntVolatile(VERSION_OFFSET);
+        if (version == VERSION) {
+          return new SharedCounters(buffer, false);
+        }
+        IoUtil.unmap(buffer);
+        if (version != 0) {
+          throw new IllegalStateException("Unsupported counters file version: " + version);
+        }
+      } else if (!location.exists()) {
+        throw new IllegalStateException("Counters file doesn't exist: " + file);
+      }
+      if (System.nanoTime() - deadline >= 0) {
+        throw new IllegalStateException("Counters file isn't initialized: " + file);
+      }
+      LockSupport.parkNanos(1_000_000);
+    }
+  }
+
+  /**
+   * Allocate a counter.
+   *
+   * @param label label shown by samplers.
+   * @param typeId type of the counter, e.g. {@link #MESSAGES_TYPE_ID}.
+   * @return counter, closing it frees the counter.
+   */
+  public synchronized AtomicCounter newCounter(String label, int typeId) {
+    if (manager == null) {
+      throw new IllegalStateException("Counters are opened read-only");
+    }
+    if (closed) {
+      throw new IllegalStateException("Counters are closed");
+    }
+    int counterId = manager.allocate(label, typeId);
+    openCounters++;
+    return new SharedCounter(counterId);
+  }
+
+  private synchronized void free(int counterId) {
+    manager.free(counterId);
+    if (--openCounters == 0 && closed) {
+      IoUtil.unmap(mappedBuffer);
+    }
+  }
+
+  public CountersReader reader() {
+    return reader;
+  }
+
+  public long startTimestamp() {
+    return startTimestamp;
+  }
+
+  /**
+   * Close the counters. The file is unmapped once all the counters of {@link #newCounter(String,
+   * int)} are closed as well, so they can be closed in any order.
+   */
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (openCounters == 0) {
+      IoUtil.unmap(mappedBuffer);
+    }
+  }
+
+  /**
+   * Counter which keeps the file mapped until it is closed.
+   */
+  private final class SharedCounter extends AtomicCounter {
+
+    private SharedCounter(int counterId) {
+      super(manager.valuesBuffer(), counterId);
+    }
+
+    @Override
+    public void close() {
+      boolean free;
+      synchronized (this) {
+        free = !isClosed();
+        super.close();
+      }
+      if (free) {
+        free(id());
+      }
+    }
+  }
+}
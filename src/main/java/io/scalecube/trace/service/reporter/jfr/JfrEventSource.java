@@ -0,0 +1,180 @@
+package io.scalecube.trace.service.reporter.jfr;
+
+import io.scalecube.trace.TraceHandle;
+import io.scalecube.trace.TraceReporter;
+import io.scalecube.trace.service.reporter.ReportingClock;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Feeds flight recorder events of this JVM, e.g. garbage collections and safepoints, into time
+ * traces of a {@link TraceReporter}, so pauses can be lined up with the latency intervals. Every
+ * event becomes a point at its end time with its duration in millis, in a trace named {@code
+ * "<event type> (ms)"} of the {@code jfr} group.
+ *
+ * <p>Events are read on the ticks of a {@link ReportingClock}: the running recording is replaced
+ * by a new one, dumped and parsed, events seen in the previous dump are skipped. This works with
+ * any JVM with flight recorder (Java 11+ or 8u262+), event streaming of Java 14+ is not needed.
+ *
+ * <p>Every tick costs a chunk rotation of the flight recorder, a dump to a temp file and its
+ * parsing, a few millis to tens of millis depending on the number of events. It's done on a thread
+ * of its own, so the reporters sampled by the same clock aren't delayed, and a tick is skipped
+ * while the previous one is still read. The rotations themselves may show up as short
+ * safepoints, so prefer a longer clock interval when watching {@code jdk.SafepointBegin}.
+ */
+public final class JfrEventSource implements ReportingClock.Sampler, AutoCloseable {
+
+  public static final String[] DEFAULT_EVENTS = {
+    "jdk.GarbageCollection", "jdk.SafepointBegin", "jdk.Compilation"
+  };
+
+  private final String[] events;
+  private final Map<String, TraceHandle> traces = new HashMap<>();
+  private final Scheduler scheduler = Schedulers.newSingle("trace-jfr", true);
+  private final AtomicBoolean reading = new AtomicBoolean();
+  private final Disposable registration;
+  private Recording recording;
+  private Instant watermark = Instant.EPOCH;
+  // events which end exactly at the watermark, they may be in the next dump again
+  private Set<String> watermarkEvents = new HashSet<>();
+
+  /**
+   * Start recording the events and register on the clock.
+   *
+   * @param reporter reporter the traces are added to.
+   * @param clock reporting clock.
+   * @param events event types, {@link #DEFAULT_EVENTS} if none are given.
+   */
+  public JfrEventSource(TraceReporter reporter, ReportingClock clock, String... events) {
+    this.events = events.length > 0 ? events : DEFAULT_EVENTS;
+    for (String event : this.events) {
+      traces.put(event, reporter.timeSeries(event + " (ms)", "jfr"));
+    }
+    this.recording = newRecording();
+    this.registration = clock.register(this);
+  }
+
+  private Recording newRecording() {
+    Recording recording = new Recording();
+    recording.setName("trace-reporter");
+    for (String event : events) {
+      recording.enable(event).withoutThreshold();
+    }
+    recording.start();
+    return recording;
+  }
+
+  @Override
+  public void onTick(long timestamp) {
+    if (!reading.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      scheduler.schedule(
+          () -> {
+            try {
+              rotate();
+            } finally {
+              reading.set(false);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      // closed
+      reading.set(false);
+    }
+  }
+
+  private synchronized void rotate() {
+    if (recording == null) {
+      return;
+    }
+    // the next recording starts before this one stops, so no event is missed in between
+    Recording done = recording;
+    recording = newRecording();
+    done.stop();
+    Path file = null;
+    try {
+      file = Files.createTempFile("trace-jfr-", ".jfr");
+      done.dump(file);
+      read(file);
+    } catch (IOException e) {
+      e.printStackTrace();
+    } finally {
+      done.close();
+      if (file != null) {
+        file.toFile().delete();
+      }
+    }
+  }
+
+  private void read(Path file) throws IOException {
+    Instant latest = watermark;
+    Set<String> latestEvents = new HashSet<>();
+    try (RecordingFile recordingFile = new RecordingFile(file)) {
+      while (recordingFile.hasMoreEvents()) {
+        RecordedEvent event = recordingFile.readEvent();
+        TraceHandle trace = traces.get(event.getEventType().getName());
+        if (trace == null) {
+          continue;
+        }
+        Instant endTime = event.getEndTime();
+        int order = endTime.compareTo(watermark);
+        if (order < 0 || (order == 0 && watermarkEvents.contains(key(event)))) {
+          // already read from the previous dump
+          continue;
+        }
+        trace.add(endTime.toEpochMilli(), event.getDuration().toNanos() / 1e6);
+        if (endTime.isAfter(latest)) {
+          latest = endTime;
+          latestEvents.clear();
+        }
+        if (endTime.equals(latest)) {
+          latestEvents.add(key(event));
+        }
+      }
+    }
+    if (latest.equals(watermark)) {
+      watermarkEvents.addAll(latestEvents);
+    } else {
+      watermark = latest;
+      watermarkEvents = latestEvents;
+    }
+  }
+
+  private static String key(RecordedEvent event) {
+    RecordedThread thread = event.getThread();
+    return event.getEventType().getName()
+        + ':'
+        + event.getStartTime()
+        + ':'
+        + (thread != null ? thread.getJavaThreadId() : -1);
+  }
+
+  /** Stop recording. */
+  @Override
+  public void close() {
+    registration.dispose();
+    synchronized (this) {
+      if (recording != null) {
+        recording.close();
+        recording = null;
+      }
+    }
+    scheduler.dispose();
+  }
+}
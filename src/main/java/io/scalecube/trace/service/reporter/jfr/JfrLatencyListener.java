@@ -0,0 +1,71 @@
+package io.scalecube.trace.service.reporter.jfr;
+
+import io.scalecube.trace.service.reporter.latency.LatencyListener;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Emits a {@link LatencyIntervalEvent} per reported interval, so the latency of a test can be
+ * lined up with the rest of a flight recording. An event starts where the previous interval ended
+ * and ends with the report. When no recording has the event enabled, reports cost a check only.
+ * Requires a JVM with flight recorder (Java 11+ or 8u262+).
+ */
+public final class JfrLatencyListener implements LatencyListener {
+
+  private final String test;
+  private LatencyIntervalEvent event;
+  private LatencyIntervalEvent correctedEvent;
+
+  /**
+   * Create listener.
+   *
+   * @param test test name written into the events.
+   */
+  public JfrLatencyListener(String test) {
+    this.test = test;
+    this.event = begin();
+    this.correctedEvent = begin();
+  }
+
+  private static LatencyIntervalEvent begin() {
+    LatencyIntervalEvent event = new LatencyIntervalEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void onReport(Histogram intervalHistogram) {
+    commit(event, intervalHistogram, false);
+    event = begin();
+  }
+
+  @Override
+  public void onCorrectedReport(Histogram correctedIntervalHistogram) {
+    commit(correctedEvent, correctedIntervalHistogram, true);
+    correctedEvent = begin();
+  }
+
+  private void commit(LatencyIntervalEvent event, Histogram histogram, boolean corrected) {
+    if (!event.shouldCommit()) {
+      return;
+    }
+    event.test = test;
+    event.corrected = corrected;
+    event.count = histogram.getTotalCount();
+    event.p50 = histogram.getValueAtPercentile(50);
+    event.p90 = histogram.getValueAtPercentile(90);
+    event.p99 = histogram.getValueAtPercentile(99);
+    event.p999 = histogram.getValueAtPercentile(99.9);
+    event.max = histogram.getMaxValue();
+    event.commit();
+  }
+
+  @Override
+  public void onTerminate(Histogram accumulatedHistogram) {
+    // intervals are already recorded
+  }
+
+  @Override
+  public void close() {
+    // nothing to release
+  }
+}
@@ -0,0 +1,45 @@
+package io.scalecube.trace.service.reporter.jfr;
+
+import io.scalecube.trace.service.reporter.throughput.ThroughputListener;
+
+/**
+ * Emits a {@link ThroughputIntervalEvent} per reported interval, see {@link JfrLatencyListener}.
+ * Requires a JVM with flight recorder (Java 11+ or 8u262+).
+ */
+public final class JfrThroughputListener implements ThroughputListener {
+
+  private final String test;
+  private ThroughputIntervalEvent event;
+
+  /**
+   * Create listener.
+   *
+   * @param test test name written into the events.
+   */
+  public JfrThroughputListener(String test) {
+    this.test = test;
+    this.event = begin();
+  }
+
+  private static ThroughputIntervalEvent begin() {
+    ThroughputIntervalEvent event = new ThroughputIntervalEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void onReport(double messagesPerSec, double bytesPerSec) {
+    if (event.shouldCommit()) {
+      event.test = test;
+      event.messagesPerSec = messagesPerSec;
+      event.bytesPerSec = bytesPerSec;
+      event.commit();
+    }
+    event = begin();
+  }
+
+  @Override
+  public void close() {
+    // nothing to release
+  }
+}
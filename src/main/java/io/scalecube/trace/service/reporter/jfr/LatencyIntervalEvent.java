@@ -0,0 +1,53 @@
+package io.scalecube.trace.service.reporter.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event of a latency interval, spans the interval, see {@link
+ * JfrLatencyListener}.
+ */
+@Name(LatencyIntervalEvent.NAME)
+@Label("Latency Interval")
+@Description("Latency percentiles of a reporting interval")
+@Category({"ScaleCube", "Trace Reporter"})
+@StackTrace(false)
+public final class LatencyIntervalEvent extends Event {
+
+  public static final String NAME = "io.scalecube.trace.LatencyInterval";
+
+  @Label("Test")
+  String test;
+
+  @Label("Samples")
+  long count;
+
+  @Label("Corrected")
+  @Description("Coordinated omission corrected histogram")
+  boolean corrected;
+
+  @Label("p50")
+  @Timespan(Timespan.NANOSECONDS)
+  long p50;
+
+  @Label("p90")
+  @Timespan(Timespan.NANOSECONDS)
+  long p90;
+
+  @Label("p99")
+  @Timespan(Timespan.NANOSECONDS)
+  long p99;
+
+  @Label("p99.9")
+  @Timespan(Timespan.NANOSECONDS)
+  long p999;
+
+  @Label("Max")
+  @Timespan(Timespan.NANOSECONDS)
+  long max;
+}
@@ -0,0 +1,31 @@
+package io.scalecube.trace.service.reporter.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of a throughput interval, spans the interval, see {@link
+ * JfrThroughputListener}.
+ */
+@Name(ThroughputIntervalEvent.NAME)
+@Label("Throughput Interval")
+@Description("Rates of a reporting interval")
+@Category({"ScaleCube", "Trace Reporter"})
+@StackTrace(false)
+public final class ThroughputIntervalEvent extends Event {
+
+  public static final String NAME = "io.scalecube.trace.ThroughputInterval";
+
+  @Label("Test")
+  String test;
+
+  @Label("Messages per Second")
+  double messagesPerSec;
+
+  @Label("Bytes per Second")
+  double bytesPerSec;
+}
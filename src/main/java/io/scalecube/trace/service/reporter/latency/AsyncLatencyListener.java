@@ -0,0 +1,104 @@
+package io.scalecube.trace.service.reporter.latency;
+
+import io.scalecube.trace.service.reporter.DispatchPolicy;
+import io.scalecube.trace.service.reporter.ListenerDispatcher;
+import org.HdrHistogram.Histogram;
+import org.agrona.CloseHelper;
+
+/**
+ * Latency listener which calls the delegate on its own worker thread, see {@link
+ * ListenerDispatcher}. Histograms handed over must not be modified afterwards. {@link
+ * #onTerminate(Histogram)} waits for room in the queue whatever the policy, so the accumulated
+ * histogram is never dropped.
+ */
+public class AsyncLatencyListener implements LatencyListener {
+
+  public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+  private final LatencyListener delegate;
+  private final ListenerDispatcher dispatcher;
+
+  /**
+   * Create asynchronous listener.
+   *
+   * @param delegate listener to call
+   * @param capacity capacity of the queue of events
+   * @param policy what to do when the queue is full
+   */
+  public AsyncLatencyListener(LatencyListener delegate, int capacity, DispatchPolicy policy) {
+    this.delegate = delegate;
+    this.dispatcher =
+        new ListenerDispatcher(
+            "latency-listener-" + delegate.getClass().getSimpleName(), capacity, policy);
+  }
+
+  /**
+   * Wrap every listener into its own asynchronous listener.
+   *
+   * @param capacity capacity of the queue of events
+   * @param policy what to do when the queue is full
+   * @param listeners listeners
+   * @return asynchronous listeners
+   */
+  public static AsyncLatencyListener[] wrap(
+      int capacity, DispatchPolicy policy, LatencyListener... listeners) {
+    AsyncLatencyListener[] result = new AsyncLatencyListener[listeners.length];
+    for (int i = 0; i < listeners.length; i++) {
+      result[i] = new AsyncLatencyListener(listeners[i], capacity, policy);
+    }
+    return result;
+  }
+
+  @Override
+  public void onReport(Histogram intervalHistogram) {
+    dispatcher.dispatch(() -> delegate.onReport(intervalHistogram));
+  }
+
+  @Override
+  public void onReport(long timestamp, Histogram intervalHistogram) {
+    dispatcher.dispatch(() -> delegate.onReport(timestamp, intervalHistogram));
+  }
+
+  @Override
+  public void onCorrectedReport(Histogram correctedIntervalHistogram) {
+    dispatcher.dispatch(() -> delegate.onCorrectedReport(correctedIntervalHistogram));
+  }
+
+  @Override
+  public void onCorrectedReport(long timestamp, Histogram correctedIntervalHistogram) {
+    dispatcher.dispatch(() -> delegate.onCorrectedReport(timestamp, correctedIntervalHistogram));
+  }
+
+  @Override
+  public void onStageReport(String stage, Histogram intervalHistogram) {
+    dispatcher.dispatch(() -> delegate.onStageReport(stage, intervalHistogram));
+  }
+
+  @Override
+  public void onStageReport(long timestamp, String stage, Histogram intervalHistogram) {
+    dispatcher.dispatch(() -> delegate.onStageReport(timestamp, stage, intervalHistogram));
+  }
+
+  @Override
+  public void onTerminate(Histogram accumulatedHistogram) {
+    dispatcher.dispatch(() -> delegate.onTerminate(accumulatedHistogram), DispatchPolicy.BLOCK);
+  }
+
+  /**
+   * Number of events dropped because the queue was full.
+   *
+   * @return dropped events.
+   */
+  public long droppedEvents() {
+    return dispatcher.droppedEvents();
+  }
+
+  @Override
+  public void close() {
+    try {
+      dispatcher.close();
+    } finally {
+      CloseHelper.quietClose(delegate);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package io.scalecube.trace.service.reporter.latency;
+
+import io.scalecube.trace.service.reporter.CsvChannelWriter;
+import io.scalecube.trace.service.reporter.CsvFlushPolicy;
+import java.time.Duration;
+import org.HdrHistogram.Histogram;
+
+/**
+ * CSV latency listener which writes one line of percentiles (in microseconds) per report without
+ * allocating, see {@link CsvChannelWriter}. Unlike {@link CsvReportingLatencyListener} the
+ * percentile columns are configurable and lines are written to the file in batches.
+ */
+public class BufferedCsvLatencyListener implements LatencyListener {
+
+  private static final double VALUE_UNIT_SCALING_RATIO = 1000.0; // microseconds
+  private static final int DECIMALS = 3;
+
+  private final CsvChannelWriter writer;
+  private final double[] percentiles;
+
+  /**
+   * Initialize CSV latency listener with p70, p80, p90, p99 columns, flushed every second.
+   *
+   * @param fileName results filename
+   */
+  public BufferedCsvLatencyListener(String fileName) {
+    this(fileName, CsvFlushPolicy.every(Duration.ofSeconds(1)), 70d, 80d, 90d, 99d);
+  }
+
+  /**
+   * Initialize CSV latency listener.
+   *
+   * @param fileName results filename
+   * @param flushPolicy when to write lines to the file
+   * @param percentiles percentile columns
+   */
+  public BufferedCsvLatencyListener(
+      String fileName, CsvFlushPolicy flushPolicy, double... percentiles) {
+    this.percentiles = percentiles.clone();
+    this.writer = new CsvChannelWriter(fileName, flushPolicy);
+    for (double percentile : percentiles) {
+      writer.column("p" + percentileName(percentile));
+    }
+    writer.endLine();
+  }
+
+  private static String percentileName(double percentile) {
+    return percentile == Math.rint(percentile)
+        ? Long.toString((long) percentile)
+        : Double.toString(percentile);
+  }
+
+  @Override
+  public void onReport(Histogram histogram) {
+    for (double percentile : percentiles) {
+      writer.column(
+          histogram.getValueAtPercentile(percentile) / VALUE_UNIT_SCALING_RATIO, DECIMALS);
+    }
+    writer.endLine();
+  }
+
+  @Override
+  public void onTerminate(Histogram accumulatedHistogram) {
+    // nothing to do here
+  }
+
+  @Override
+  public void close() {
+    writer.close();
+  }
+}
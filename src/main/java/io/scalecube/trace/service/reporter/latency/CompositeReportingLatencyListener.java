@@ -18,6 +18,41 @@ public void onReport(Histogram intervalHistogram) {
     }
   }
 
+  @Override
+  public void onReport(long timestamp, Histogram intervalHistogram) {
+    for (LatencyListener latencyListener : listeners) {
+      latencyListener.onReport(timestamp, intervalHistogram);
+    }
+  }
+
+  @Override
+  public void onCorrectedReport(Histogram correctedIntervalHistogram) {
+    for (LatencyListener latencyListener : listeners) {
+      latencyListener.onCorrectedReport(correctedIntervalHistogram);
+    }
+  }
+
+  @Override
+  public void onCorrectedReport(long timestamp, Histogram correctedIntervalHistogram) {
+    for (LatencyListener latencyListener : listeners) {
+      latencyListener.onCorrectedReport(timestamp, correctedIntervalHistogram);
+    }
+  }
+
+  @Override
+  public void onStageReport(String stage, Histogram intervalHistogram) {
+    for (LatencyListener latencyListener : listeners) {
+      latencyListener.onStageReport(stage, intervalHistogram);
+    }
+  }
+
+  @Override
+  public void onStageReport(long timestamp, String stage, Histogram intervalHistogram) {
+    for (LatencyListener latencyListener : listeners) {
+      latencyListener.onStageReport(timestamp, stage, intervalHistogram);
+    }
+  }
+
   @Override
   public void close() {
     CloseHelper.quietCloseAll(listeners);
@@ -0,0 +1,95 @@
+package io.scalecube.trace.service.reporter.latency;
+
+import java.io.FileNotFoundException;
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.agrona.CloseHelper;
+
+/**
+ * Reads a log written by {@link HistogramLogReportingLatencyListener} and re-drives latency
+ * listeners with it, as if the test was running again. Any listener can be used, {@link
+ * LatencyListenerImpl} included, so percentiles and windows can be recomputed and published after
+ * the fact.
+ */
+public final class HistogramLogReplayer {
+
+  private HistogramLogReplayer() {
+    // Do not instantiate
+  }
+
+  /**
+   * Replay the whole log. Listeners are not closed.
+   *
+   * @param fileName histogram log filename
+   * @param listeners latency listeners
+   * @throws FileNotFoundException if log doesn't exist
+   */
+  public static void replay(String fileName, LatencyListener... listeners)
+      throws FileNotFoundException {
+    replay(fileName, 0.0, Double.MAX_VALUE, listeners);
+  }
+
+  /**
+   * Replay intervals of the log which fall into the given window. Listeners are not closed.
+   *
+   * @param fileName histogram log filename
+   * @param startTimeSec window start, in seconds since the log start time
+   * @param endTimeSec window end, in seconds since the log start time
+   * @param listeners latency listeners
+   * @throws FileNotFoundException if log doesn't exist
+   */
+  public static void replay(
+      String fileName, double startTimeSec, double endTimeSec, LatencyListener... listeners)
+      throws FileNotFoundException {
+    LatencyListener listener = new CompositeReportingLatencyListener(listeners);
+    HistogramLogReader logReader = new HistogramLogReader(fileName);
+    try {
+      Histogram accumulatedHistogram = null;
+      EncodableHistogram histogram;
+      while ((histogram = logReader.nextIntervalHistogram(startTimeSec, endTimeSec)) != null) {
+        if (!(histogram instanceof Histogram)) {
+          continue;
+        }
+        Histogram intervalHistogram = (Histogram) histogram;
+        if (HistogramLogReportingLatencyListener.CORRECTED_TAG.equals(histogram.getTag())) {
+          listener.onCorrectedReport(intervalHistogram);
+          continue;
+        }
+        if (accumulatedHistogram != null) {
+          accumulatedHistogram.add(intervalHistogram);
+        } else {
+          accumulatedHistogram = intervalHistogram.copy();
+        }
+        listener.onReport(intervalHistogram);
+      }
+      if (accumulatedHistogram != null) {
+        listener.onTerminate(accumulatedHistogram);
+      }
+    } finally {
+      logReader.close();
+    }
+  }
+
+  /**
+   * Prints percentile distributions of the log intervals. Usage: {@code HistogramLogReplayer
+   * <log file> [<start sec> <end sec>]}.
+   *
+   * @param args arguments
+   * @throws FileNotFoundException if log doesn't exist
+   */
+  public static void main(String[] args) throws FileNotFoundException {
+    if (args.length != 1 && args.length != 3) {
+      System.err.println("Usage: HistogramLogReplayer <log file> [<start sec> <end sec>]");
+      return;
+    }
+    double startTimeSec = args.length == 3 ? Double.parseDouble(args[1]) : 0.0;
+    double endTimeSec = args.length == 3 ? Double.parseDouble(args[2]) : Double.MAX_VALUE;
+    LatencyListener listener = new ConsoleReportingLatencyListener();
+    try {
+      replay(args[0], startTimeSec, endTimeSec, listener);
+    } finally {
+      CloseHelper.quietClose(listener);
+    }
+  }
+}
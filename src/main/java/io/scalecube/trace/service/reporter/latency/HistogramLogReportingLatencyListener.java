@@ -0,0 +1,82 @@
+package io.scalecube.trace.service.reporter.latency;
+
+import java.io.BufferedOutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.agrona.CloseHelper;
+import reactor.core.Exceptions;
+
+/**
+ * Writes every interval histogram, compressed, to a HdrHistogram interval log. Corrected
+ * histograms (see {@link LatencyReporter#expectedInterval(java.time.Duration)}) are written with
+ * {@value #CORRECTED_TAG} tag. The log can be replayed with {@link HistogramLogReplayer}.
+ */
+public class HistogramLogReportingLatencyListener implements LatencyListener {
+
+  public static final String CORRECTED_TAG = "corrected";
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final PrintStream log;
+  private final HistogramLogWriter logWriter;
+
+  /**
+   * Initialize histogram log latency listener.
+   *
+   * @param fileName results filename
+   */
+  public HistogramLogReportingLatencyListener(String fileName) {
+    try {
+      FileChannel channel =
+          FileChannel.open(
+              Paths.get(fileName),
+              StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING);
+      log =
+          new PrintStream(
+              new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE),
+              false,
+              "US-ASCII");
+      logWriter = new HistogramLogWriter(log);
+      long startTime = System.currentTimeMillis();
+      logWriter.outputLogFormatVersion();
+      logWriter.outputStartTime(startTime);
+      logWriter.setBaseTime(startTime);
+      logWriter.outputLegend();
+      log.flush();
+    } catch (Exception e) {
+      throw Exceptions.propagate(e);
+    }
+  }
+
+  @Override
+  public void onReport(Histogram intervalHistogram) {
+    logWriter.outputIntervalHistogram(intervalHistogram);
+    log.flush();
+  }
+
+  @Override
+  public void onCorrectedReport(Histogram correctedIntervalHistogram) {
+    // the histogram is shared with the other listeners, so a copy is tagged
+    Histogram tagged = correctedIntervalHistogram.copy();
+    tagged.setTag(CORRECTED_TAG);
+    logWriter.outputIntervalHistogram(tagged);
+    log.flush();
+  }
+
+  @Override
+  public void onTerminate(Histogram accumulatedHistogram) {
+    // nothing to do here, accumulated histogram can be recomputed from the log
+  }
+
+  @Override
+  public void close() {
+    CloseHelper.quietClose(log);
+  }
+}
@@ -11,6 +11,64 @@ public interface LatencyListener extends AutoCloseable {
    */
   void onReport(Histogram intervalHistogram);
 
+  /**
+   * Called for a latency report sampled on a tick of {@link
+   * io.scalecube.trace.service.reporter.ReportingClock}, instead of {@link #onReport(Histogram)}.
+   *
+   * @param timestamp tick time, epoch millis.
+   * @param intervalHistogram the histogram.
+   */
+  default void onReport(long timestamp, Histogram intervalHistogram) {
+    onReport(intervalHistogram);
+  }
+
+  /**
+   * Called for a latency report corrected for coordinated omission, only when {@link
+   * LatencyReporter#expectedInterval(java.time.Duration)} is set. Follows {@link
+   * #onReport(Histogram)} of the same interval.
+   *
+   * @param correctedIntervalHistogram the histogram.
+   */
+  default void onCorrectedReport(Histogram correctedIntervalHistogram) {
+    // no-op
+  }
+
+  /**
+   * Called for a corrected latency report sampled on a tick of {@link
+   * io.scalecube.trace.service.reporter.ReportingClock}, instead of {@link
+   * #onCorrectedReport(Histogram)}.
+   *
+   * @param timestamp tick time, epoch millis.
+   * @param correctedIntervalHistogram the histogram.
+   */
+  default void onCorrectedReport(long timestamp, Histogram correctedIntervalHistogram) {
+    onCorrectedReport(correctedIntervalHistogram);
+  }
+
+  /**
+   * Called for a latency report of a stage, only when {@link LatencyReporter#stages(String...)}
+   * are set. Follows {@link #onReport(Histogram)} of the same interval, once per stage.
+   *
+   * @param stage name of the stage.
+   * @param intervalHistogram the histogram of the stage.
+   */
+  default void onStageReport(String stage, Histogram intervalHistogram) {
+    // no-op
+  }
+
+  /**
+   * Called for a latency report of a stage sampled on a tick of {@link
+   * io.scalecube.trace.service.reporter.ReportingClock}, instead of {@link
+   * #onStageReport(String, Histogram)}.
+   *
+   * @param timestamp tick time, epoch millis.
+   * @param stage name of the stage.
+   * @param intervalHistogram the histogram of the stage.
+   */
+  default void onStageReport(long timestamp, String stage, Histogram intervalHistogram) {
+    onStageReport(stage, intervalHistogram);
+  }
+
   /**
    * Called for an accumulated result.
    *
@@ -1,8 +1,15 @@
 package io.scalecube.trace.service.reporter.latency;
 
+import io.scalecube.trace.TraceHandle;
+import io.scalecube.trace.TraceReporter;
+import io.scalecube.trace.TraceStorage;
 import io.scalecube.trace.service.reporter.AbstractPerformanceListener;
+import io.scalecube.trace.service.reporter.JvmMetricsSampler;
 import io.scalecube.trace.service.reporter.PublisherContext;
+import io.scalecube.trace.service.reporter.ReportingClock;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.UnaryOperator;
 import org.HdrHistogram.Histogram;
 import reactor.core.Exceptions;
@@ -12,6 +19,9 @@ public final class LatencyListenerImpl extends AbstractPerformanceListener
 
   private double scalingRatio = 1000.0; // microseconds;
   private double[] percentiles = {50d, 75d, 90d, 99d};
+  private TraceHandle[] traces;
+  private TraceHandle[] correctedTraces;
+  private Map<String, TraceHandle[]> stageTraces;
 
   /**
    * {@link PublisherContext} settings function.
@@ -61,16 +71,122 @@ public LatencyListenerImpl percentiles(double... percentiles) {
     return c;
   }
 
+  /**
+   * Setter for the storage of the points, see {@link TraceStorage#mapped(java.nio.file.Path)} for
+   * long runs. Must be set before the first report.
+   *
+   * @param storage storage of the points
+   * @return new {@code LatencyListenerImpl} instance
+   */
+  public LatencyListenerImpl storage(TraceStorage storage) {
+    LatencyListenerImpl c = clone();
+    c.reporter = new TraceReporter(storage);
+    return c;
+  }
+
+  /**
+   * Add JVM runtime traces (GC, allocation, JIT, threads, CPU) sampled on the ticks of the clock,
+   * see {@link JvmMetricsSampler}. They are published together with the traces of this listener.
+   * Sampling starts with the first report and stops on close.
+   *
+   * @param clock reporting clock, e.g. the clock of the reporter.
+   * @return new {@code LatencyListenerImpl} instance
+   */
+  public LatencyListenerImpl jvmMetrics(ReportingClock clock) {
+    LatencyListenerImpl c = clone();
+    c.jvmMetricsClock = clock;
+    return c;
+  }
+
   @Override
   public void onReport(Histogram histogram) {
-    for (double d : percentiles) {
-      reporter.addY(
-          "[p" + d + "] " + publisherContext.testName(),
-          "latency",
-          histogram.getValueAtPercentile(d) / scalingRatio);
+    TraceHandle[] handles = handles(false);
+    for (int i = 0; i < percentiles.length; i++) {
+      handles[i].add(value(histogram, i));
+    }
+  }
+
+  @Override
+  public void onReport(long timestamp, Histogram histogram) {
+    TraceHandle[] handles = handles(true);
+    for (int i = 0; i < percentiles.length; i++) {
+      handles[i].add(timestamp, value(histogram, i));
     }
   }
 
+  @Override
+  public void onCorrectedReport(Histogram correctedHistogram) {
+    TraceHandle[] handles = correctedHandles(false);
+    for (int i = 0; i < percentiles.length; i++) {
+      handles[i].add(value(correctedHistogram, i));
+    }
+  }
+
+  @Override
+  public void onCorrectedReport(long timestamp, Histogram correctedHistogram) {
+    TraceHandle[] handles = correctedHandles(true);
+    for (int i = 0; i < percentiles.length; i++) {
+      handles[i].add(timestamp, value(correctedHistogram, i));
+    }
+  }
+
+  @Override
+  public void onStageReport(String stage, Histogram stageHistogram) {
+    TraceHandle[] handles = stageHandles(stage, false);
+    for (int i = 0; i < percentiles.length; i++) {
+      handles[i].add(value(stageHistogram, i));
+    }
+  }
+
+  @Override
+  public void onStageReport(long timestamp, String stage, Histogram stageHistogram) {
+    TraceHandle[] handles = stageHandles(stage, true);
+    for (int i = 0; i < percentiles.length; i++) {
+      handles[i].add(timestamp, value(stageHistogram, i));
+    }
+  }
+
+  private TraceHandle[] handles(boolean timeAxis) {
+    if (traces == null) {
+      traces = traces("", timeAxis);
+      schedulePublishing();
+    }
+    return traces;
+  }
+
+  private TraceHandle[] correctedHandles(boolean timeAxis) {
+    if (correctedTraces == null) {
+      correctedTraces = traces(" (corrected)", timeAxis);
+    }
+    return correctedTraces;
+  }
+
+  private TraceHandle[] stageHandles(String stage, boolean timeAxis) {
+    if (stageTraces == null) {
+      stageTraces = new HashMap<>();
+    }
+    TraceHandle[] handles = stageTraces.get(stage);
+    if (handles == null) {
+      handles = traces(" " + stage, timeAxis);
+      stageTraces.put(stage, handles);
+    }
+    return handles;
+  }
+
+  private TraceHandle[] traces(String suffix, boolean timeAxis) {
+    TraceHandle[] handles = new TraceHandle[percentiles.length];
+    for (int i = 0; i < percentiles.length; i++) {
+      String name = "[p" + percentiles[i] + "] " + publisherContext.testName() + suffix;
+      handles[i] =
+          timeAxis ? reporter.timeSeries(name, "latency") : reporter.series(name, "latency");
+    }
+    return handles;
+  }
+
+  private double value(Histogram histogram, int index) {
+    return histogram.getValueAtPercentile(percentiles[index]) / scalingRatio;
+  }
+
   @Override
   public void onTerminate(Histogram accumulatedHistogram) {
     // nothing to do here
@@ -79,7 +195,12 @@ public void onTerminate(Histogram accumulatedHistogram) {
   @Override
   public LatencyListenerImpl clone() {
     try {
-      return (LatencyListenerImpl) super.clone();
+      LatencyListenerImpl c = (LatencyListenerImpl) super.clone();
+      // resolved again, with the percentiles and the test name of the clone
+      c.traces = null;
+      c.correctedTraces = null;
+      c.stageTraces = null;
+      return c;
     } catch (CloneNotSupportedException e) {
       throw Exceptions.propagate(e);
     }
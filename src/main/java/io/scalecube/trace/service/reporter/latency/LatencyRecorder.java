@@ -0,0 +1,61 @@
+package io.scalecube.trace.service.reporter.latency;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Records latency samples from any thread and hands out interval histograms, see {@link
+ * LatencyReporter}.
+ */
+interface LatencyRecorder {
+
+  void recordValue(long value);
+
+  void recordValueWithExpectedInterval(long value, long expectedInterval);
+
+  /**
+   * Get a new histogram with the samples recorded since the previous call.
+   *
+   * @return interval histogram, owned by the caller.
+   */
+  Histogram getIntervalHistogram();
+
+  void reset();
+
+  /** Release the histograms, samples recorded afterwards are dropped. */
+  default void close() {
+    reset();
+  }
+
+  /**
+   * All threads record into one {@link Recorder}.
+   *
+   * @param highestTrackableValue highest trackable value
+   * @param significantDigits number of significant value digits
+   * @return recorder
+   */
+  static LatencyRecorder shared(long highestTrackableValue, int significantDigits) {
+    Recorder recorder = new Recorder(highestTrackableValue, significantDigits);
+    return new LatencyRecorder() {
+      @Override
+      public void recordValue(long value) {
+        recorder.recordValue(value);
+      }
+
+      @Override
+      public void recordValueWithExpectedInterval(long value, long expectedInterval) {
+        recorder.recordValueWithExpectedInterval(value, expectedInterval);
+      }
+
+      @Override
+      public Histogram getIntervalHistogram() {
+        return recorder.getIntervalHistogram();
+      }
+
+      @Override
+      public void reset() {
+        recorder.reset();
+      }
+    };
+  }
+}
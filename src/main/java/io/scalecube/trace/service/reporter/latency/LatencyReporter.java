@@ -1,6 +1,9 @@
 package io.scalecube.trace.service.reporter.latency;
 
 import io.scalecube.trace.service.reporter.AbstractPerformanceReporter;
+import io.scalecube.trace.service.reporter.DispatchPolicy;
+import io.scalecube.trace.service.reporter.capture.SampleCapture;
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 import org.HdrHistogram.Histogram;
 import org.HdrHistogram.Recorder;
@@ -11,15 +14,77 @@
 
 public class LatencyReporter extends AbstractPerformanceReporter<LatencyReporter> {
 
-  private final Recorder histogram;
-  private final LatencyListener listener;
+  private static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.SECONDS.toNanos(10);
+  private static final int SIGNIFICANT_DIGITS = 3;
+
+  // one per thread for all the reporters, holds a reporter only while a sample is timed
+  private static final ThreadLocal<StageTimer> STAGE_TIMERS =
+      ThreadLocal.withInitial(StageTimer::new);
+
+  private LatencyRecorder histogram;
+  private final LatencyListener[] listeners;
+  private LatencyListener listener;
+  private AsyncLatencyListener[] asyncListeners;
+
+  private LatencyRecorder correctedHistogram;
+  private String[] stageNames;
+  private LatencyRecorder[] stageHistograms;
+  private boolean striped;
+  private SampleCapture capture;
+  private long expectedInterval;
 
   private Histogram accumulatedHistogram;
   private Disposable disposable;
 
-  private LatencyReporter(LatencyListener listener) {
-    this.listener = listener;
-    this.histogram = new Recorder(TimeUnit.SECONDS.toNanos(10), 3);
+  private LatencyReporter(LatencyListener... listeners) {
+    this.listeners = listeners;
+    this.listener = new CompositeReportingLatencyListener(listeners);
+    this.histogram = newRecorder();
+  }
+
+  private LatencyRecorder newRecorder() {
+    return striped
+        ? new StripedLatencyRecorder(HIGHEST_TRACKABLE_VALUE, SIGNIFICANT_DIGITS)
+        : LatencyRecorder.shared(HIGHEST_TRACKABLE_VALUE, SIGNIFICANT_DIGITS);
+  }
+
+  /**
+   * Record samples of every thread into its own {@link org.HdrHistogram.SingleWriterRecorder},
+   * merged on every report, instead of into one shared {@link Recorder}. Removes the contention
+   * of many threads recording at high rates; costs a histogram per recording thread. Must be set
+   * before samples are recorded.
+   *
+   * @return LatencyReporter
+   */
+  public LatencyReporter striped() {
+    this.striped = true;
+    this.histogram = newRecorder();
+    if (correctedHistogram != null) {
+      this.correctedHistogram = newRecorder();
+    }
+    if (stageNames != null) {
+      stages(stageNames);
+    }
+    return this;
+  }
+
+  /**
+   * Break the latency down into stages, e.g. decode, route, execute, encode. Every stage gets its
+   * own histogram, reported through {@link LatencyListener#onStageReport(String, Histogram)} after
+   * the total. Stages are timed with {@link #begin()}, the index of a stage is its position here.
+   * Must be set before samples are recorded.
+   *
+   * @param names names of the stages.
+   * @return LatencyReporter
+   */
+  public LatencyReporter stages(String... names) {
+    LatencyRecorder[] recorders = new LatencyRecorder[names.length];
+    for (int i = 0; i < names.length; i++) {
+      recorders[i] = newRecorder();
+    }
+    this.stageNames = names;
+    this.stageHistograms = recorders;
+    return this;
   }
 
   /**
@@ -29,31 +94,180 @@ private LatencyReporter(LatencyListener listener) {
    * @return a reporter
    */
   public static LatencyReporter create(LatencyListener... listeners) {
-    return new LatencyReporter(new CompositeReportingLatencyListener(listeners));
+    return new LatencyReporter(listeners);
   }
 
-  /** start latency reporter. */
+  /**
+   * Call every listener on its own worker thread instead of the reporting thread, see {@link
+   * AsyncLatencyListener}. The reporting thread only takes the interval histograms and hands them
+   * over, so slow listeners don't skew the intervals. Must be set before {@link #start()}.
+   *
+   * @param policy what to do when the queue of a listener is full.
+   * @param capacity capacity of the queue of every listener.
+   * @return LatencyReporter
+   * @throws IllegalStateException if async dispatch is already set.
+   */
+  public LatencyReporter asyncDispatch(DispatchPolicy policy, int capacity) {
+    if (asyncListeners != null) {
+      throw new IllegalStateException("Async dispatch is already set");
+    }
+    this.asyncListeners = AsyncLatencyListener.wrap(capacity, policy, listeners);
+    this.listener = new CompositeReportingLatencyListener(asyncListeners);
+    return this;
+  }
+
+  /**
+   * Same as {@link #asyncDispatch(DispatchPolicy, int)} with {@link
+   * AsyncLatencyListener#DEFAULT_QUEUE_CAPACITY}.
+   *
+   * @param policy what to do when the queue of a listener is full.
+   * @return LatencyReporter
+   */
+  public LatencyReporter asyncDispatch(DispatchPolicy policy) {
+    return asyncDispatch(policy, AsyncLatencyListener.DEFAULT_QUEUE_CAPACITY);
+  }
+
+  /**
+   * Number of events dropped by all the listeners because their queues were full, see {@link
+   * #asyncDispatch(DispatchPolicy, int)}.
+   *
+   * @return dropped events, 0 without async dispatch.
+   */
+  public long droppedEvents() {
+    long dropped = 0;
+    if (asyncListeners != null) {
+      for (AsyncLatencyListener asyncListener : asyncListeners) {
+        dropped += asyncListener.droppedEvents();
+      }
+    }
+    return dropped;
+  }
+
+  /**
+   * Number of events dropped by a listener because its queue was full, see {@link
+   * #asyncDispatch(DispatchPolicy, int)}.
+   *
+   * @param index index of the listener given to {@link #create(LatencyListener...)}.
+   * @return dropped events, 0 without async dispatch.
+   */
+  public long droppedEvents(int index) {
+    return asyncListeners != null ? asyncListeners[index].droppedEvents() : 0;
+  }
+
+  /**
+   * Additionally capture every raw sample with its timestamp, so the sequence of samples around a
+   * spike can be exported afterwards, see {@link
+   * io.scalecube.trace.service.reporter.capture.SampleCaptureReader}. The capture is owned by the
+   * caller and should be closed after this reporter.
+   *
+   * @param capture sample capture.
+   * @return LatencyReporter
+   */
+  public LatencyReporter capture(SampleCapture capture) {
+    this.capture = capture;
+    return this;
+  }
+
+  /**
+   * Setup expected interval between two samples (coordinated omission correction). With it set,
+   * every sample is additionally recorded with {@link Recorder#recordValueWithExpectedInterval},
+   * which back-fills the samples missed while the system under test stalled, and the corrected
+   * histograms are reported through {@link LatencyListener#onCorrectedReport(Histogram)}. Samples
+   * are expected in nanoseconds.
+   *
+   * @param expectedInterval expected interval between two samples.
+   * @return LatencyReporter
+   */
+  public LatencyReporter expectedInterval(Duration expectedInterval) {
+    this.expectedInterval = expectedInterval.toNanos();
+    this.correctedHistogram = newRecorder();
+    return this;
+  }
+
+  /** Start latency reporter, samples recorded before are discarded. */
   public LatencyReporter start() {
+    histogram.reset();
+    if (correctedHistogram != null) {
+      correctedHistogram.reset();
+    }
+    if (stageHistograms != null) {
+      for (LatencyRecorder stageHistogram : stageHistograms) {
+        stageHistogram.reset();
+      }
+    }
+    startWarmup();
+    if (clock != null) {
+      Disposable registration = registerOnClock(this::run);
+      this.disposable =
+          () -> {
+            registration.dispose();
+            onTerminate();
+          };
+      return this;
+    }
     this.disposable =
         Flux.interval(reportDelay, reportInterval, Schedulers.single())
             .doOnCancel(this::onTerminate)
-            .subscribe(i -> this.run(), Throwable::printStackTrace);
+            .subscribe(i -> this.run(NO_TIMESTAMP), Throwable::printStackTrace);
     return this;
   }
 
-  private void run() {
+  @Override
+  public synchronized void report() {
+    if (warmupFinished) {
+      run(clock != null ? System.currentTimeMillis() : NO_TIMESTAMP);
+    }
+  }
+
+  private synchronized void run(long timestamp) {
     if (warmupFinished) {
       Histogram intervalHistogram = histogram.getIntervalHistogram();
       if (accumulatedHistogram != null) {
         accumulatedHistogram.add(intervalHistogram);
       } else {
-        accumulatedHistogram = intervalHistogram;
+        // listeners may keep the interval histogram, so it's never modified
+        accumulatedHistogram = intervalHistogram.copy();
       }
 
-      listener.onReport(intervalHistogram);
+      Histogram correctedIntervalHistogram =
+          correctedHistogram != null ? correctedHistogram.getIntervalHistogram() : null;
+      if (timestamp == NO_TIMESTAMP) {
+        listener.onReport(intervalHistogram);
+        if (correctedIntervalHistogram != null) {
+          listener.onCorrectedReport(correctedIntervalHistogram);
+        }
+      } else {
+        listener.onReport(timestamp, intervalHistogram);
+        if (correctedIntervalHistogram != null) {
+          listener.onCorrectedReport(timestamp, correctedIntervalHistogram);
+        }
+      }
+      reportStages(timestamp);
     } else {
-      warmupFinished = true;
-      histogram.reset();
+      Histogram warmupHistogram = histogram.getIntervalHistogram();
+      if (correctedHistogram != null) {
+        correctedHistogram.reset();
+      }
+      if (stageHistograms != null) {
+        for (LatencyRecorder stageHistogram : stageHistograms) {
+          stageHistogram.reset();
+        }
+      }
+      warmupFinished = finishWarmup(warmupHistogram.getValueAtPercentile(50));
+    }
+  }
+
+  private void reportStages(long timestamp) {
+    if (stageHistograms == null) {
+      return;
+    }
+    for (int i = 0; i < stageHistograms.length; i++) {
+      Histogram stageHistogram = stageHistograms[i].getIntervalHistogram();
+      if (timestamp == NO_TIMESTAMP) {
+        listener.onStageReport(stageNames[i], stageHistogram);
+      } else {
+        listener.onStageReport(timestamp, stageNames[i], stageHistogram);
+      }
     }
   }
 
@@ -61,14 +275,51 @@ private void onTerminate() {
     listener.onTerminate(accumulatedHistogram);
   }
 
+  /**
+   * Record a latency sample.
+   *
+   * @param diff latency, in nanoseconds when {@link #expectedInterval(Duration)} is used.
+   */
   public void onDiff(long diff) {
     histogram.recordValue(diff);
+    if (capture != null) {
+      capture.record(diff);
+    }
+    if (correctedHistogram != null) {
+      correctedHistogram.recordValueWithExpectedInterval(diff, expectedInterval);
+    }
+  }
+
+  /**
+   * Start timing a sample broken down into {@link #stages(String...)}. The timer belongs to the
+   * calling thread and is reused by every call, also of other reporters, so timing allocates
+   * nothing; a thread times one sample at a time and the timer must not be passed to another
+   * thread before {@link StageTimer#end()}.
+   *
+   * @return timer of the calling thread, started now.
+   */
+  public StageTimer begin() {
+    return STAGE_TIMERS.get().start(this, System.nanoTime());
+  }
+
+  void onStage(int stage, long diff) {
+    stageHistograms[stage].recordValue(diff);
   }
 
   @Override
   public void close() {
-    disposable.dispose();
-    histogram.reset();
+    if (disposable != null) {
+      disposable.dispose();
+    }
+    histogram.close();
+    if (correctedHistogram != null) {
+      correctedHistogram.close();
+    }
+    if (stageHistograms != null) {
+      for (LatencyRecorder stageHistogram : stageHistograms) {
+        stageHistogram.close();
+      }
+    }
     CloseHelper.quietClose(listener);
   }
 }
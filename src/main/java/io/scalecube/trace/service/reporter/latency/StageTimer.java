@@ -0,0 +1,69 @@
+package io.scalecube.trace.service.reporter.latency;
+
+/**
+ * Times one sample broken down into the stages of {@link LatencyReporter#stages(String...)}:
+ *
+ * <pre>{@code
+ * StageTimer timer = reporter.begin();
+ * decode();
+ * timer.mark(DECODE);
+ * execute();
+ * timer.mark(EXECUTE);
+ * timer.end();
+ * }</pre>
+ *
+ * <p>Every {@link #mark(int)} records the time since the previous mark (or {@link
+ * LatencyReporter#begin()}) into the histogram of the stage, {@link #end()} records the total.
+ * Timers are kept per thread and reused by all the reporters, see {@link LatencyReporter#begin()}.
+ */
+public final class StageTimer {
+
+  // set from begin() to end() only, so an idle timer doesn't keep the reporter
+  private LatencyReporter reporter;
+  private long startTime;
+  private long markTime;
+
+  StageTimer() {
+    // one per thread, see LatencyReporter#begin()
+  }
+
+  StageTimer start(LatencyReporter reporter, long nanoTime) {
+    this.reporter = reporter;
+    this.startTime = nanoTime;
+    this.markTime = nanoTime;
+    return this;
+  }
+
+  /**
+   * Finish a stage.
+   *
+   * @param stage index of the stage in {@link LatencyReporter#stages(String...)}.
+   * @return this timer
+   */
+  public StageTimer mark(int stage) {
+    long now = System.nanoTime();
+    reporter().onStage(stage, now - markTime);
+    markTime = now;
+    return this;
+  }
+
+  /**
+   * Finish the sample, the total since {@link LatencyReporter#begin()} is recorded as with {@link
+   * LatencyReporter#onDiff(long)}.
+   *
+   * @return total latency, nanoseconds.
+   */
+  public long end() {
+    long total = System.nanoTime() - startTime;
+    reporter().onDiff(total);
+    reporter = null;
+    return total;
+  }
+
+  private LatencyReporter reporter() {
+    if (reporter == null) {
+      throw new IllegalStateException("Timer isn't started");
+    }
+    return reporter;
+  }
+}
@@ -0,0 +1,117 @@
+package io.scalecube.trace.service.reporter.latency;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.SingleWriterRecorder;
+
+/**
+ * {@link LatencyRecorder} with a {@link SingleWriterRecorder} per recording thread, so recording
+ * threads never contend with each other. The stripes are merged into one histogram on every
+ * {@link #getIntervalHistogram()}. Stripes of threads which died are dropped once their last
+ * samples were merged, all stripes are dropped on {@link #close()}.
+ *
+ * <p>A stripe doesn't reference this recorder, so the thread locals of threads which outlive it
+ * don't keep it reachable.
+ */
+final class StripedLatencyRecorder implements LatencyRecorder {
+
+  private final long highestTrackableValue;
+  private final int significantDigits;
+  private final CopyOnWriteArrayList<Stripe> stripes = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<Stripe> stripe = ThreadLocal.withInitial(this::newStripe);
+  private volatile boolean closed;
+
+  StripedLatencyRecorder(long highestTrackableValue, int significantDigits) {
+    this.highestTrackableValue = highestTrackableValue;
+    this.significantDigits = significantDigits;
+  }
+
+  private synchronized Stripe newStripe() {
+    if (closed) {
+      return new Stripe(null, Thread.currentThread());
+    }
+    Stripe stripe =
+        new Stripe(
+            new SingleWriterRecorder(highestTrackableValue, significantDigits),
+            Thread.currentThread());
+    stripes.add(stripe);
+    return stripe;
+  }
+
+  @Override
+  public void recordValue(long value) {
+    SingleWriterRecorder recorder = stripe.get().recorder;
+    if (recorder != null) {
+      recorder.recordValue(value);
+    }
+  }
+
+  @Override
+  public void recordValueWithExpectedInterval(long value, long expectedInterval) {
+    SingleWriterRecorder recorder = stripe.get().recorder;
+    if (recorder != null) {
+      recorder.recordValueWithExpectedInterval(value, expectedInterval);
+    }
+  }
+
+  @Override
+  public synchronized Histogram getIntervalHistogram() {
+    Histogram result = new Histogram(highestTrackableValue, significantDigits);
+    for (Stripe stripe : stripes) {
+      // liveness is checked before the flip, so nothing can be recorded after the last merge
+      boolean dead = !stripe.isAlive();
+      stripe.interval = stripe.recorder.getIntervalHistogram(stripe.interval);
+      result.add(stripe.interval);
+      if (dead) {
+        stripes.remove(stripe);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public synchronized void reset() {
+    for (Stripe stripe : stripes) {
+      stripe.recorder.reset();
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    closed = true;
+    for (Stripe stripe : stripes) {
+      // the stripe itself stays in the thread local of its thread until that thread exits
+      stripe.recorder = null;
+      stripe.interval = null;
+    }
+    stripes.clear();
+    stripe.remove();
+  }
+
+  /**
+   * Number of threads recording into this recorder, including dead ones not merged yet.
+   *
+   * @return number of stripes.
+   */
+  int stripes() {
+    return stripes.size();
+  }
+
+  private static final class Stripe {
+
+    private volatile SingleWriterRecorder recorder;
+    private final WeakReference<Thread> owner;
+    private Histogram interval;
+
+    private Stripe(SingleWriterRecorder recorder, Thread owner) {
+      this.recorder = recorder;
+      this.owner = new WeakReference<>(owner);
+    }
+
+    private boolean isAlive() {
+      Thread thread = owner.get();
+      return thread != null && thread.isAlive();
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package io.scalecube.trace.service.reporter.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Pre-resolved latency series of {@link MetricsRegistry}. Recording is wait-free and allocation
+ * free, the handle can be shared between threads.
+ */
+public final class LatencyMetric {
+
+  private final MetricId id;
+  private final Recorder recorder;
+  private Histogram interval;
+
+  LatencyMetric(MetricId id, int significantDigits) {
+    this.id = id;
+    this.recorder = new Recorder(significantDigits);
+  }
+
+  public MetricId id() {
+    return id;
+  }
+
+  /**
+   * Record a latency sample.
+   *
+   * @param value latency, in nanoseconds
+   */
+  public void record(long value) {
+    recorder.recordValue(value);
+  }
+
+  void report(long timestamp, MetricsListener listener) {
+    interval = recorder.getIntervalHistogram(interval);
+    if (interval.getTotalCount() > 0) {
+      listener.onLatency(timestamp, id, interval);
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package io.scalecube.trace.service.reporter.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Name and tags of a series in {@link MetricsRegistry}. Instances are canonical within a registry,
+ * so they can be compared by identity.
+ */
+public final class MetricId {
+
+  private final String name;
+  private final String[] tags;
+  private final String text;
+
+  MetricId(String name, String[] tags) {
+    this.name = name;
+    this.tags = tags.clone();
+    StringBuilder sb = new StringBuilder(name);
+    if (tags.length > 0) {
+      sb.append('{');
+      for (int i = 0; i < tags.length; i += 2) {
+        if (i > 0) {
+          sb.append(',');
+        }
+        sb.append(tags[i]).append('=').append(tags[i + 1]);
+      }
+      sb.append('}');
+    }
+    this.text = sb.toString();
+  }
+
+  public String name() {
+    return name;
+  }
+
+  /**
+   * Value of a tag.
+   *
+   * @param key tag key
+   * @return tag value or null.
+   */
+  public String tag(String key) {
+    for (int i = 0; i < tags.length; i += 2) {
+      if (tags[i].equals(key)) {
+        return tags[i + 1];
+      }
+    }
+    return null;
+  }
+
+  boolean matches(String name, String[] tags) {
+    return this.name.equals(name) && Arrays.equals(this.tags, tags);
+  }
+
+  static long hash(String name, String[] tags) {
+    long hash = hash(0xcbf29ce484222325L, name);
+    for (String tag : tags) {
+      hash = hash(hash, tag);
+    }
+    return hash;
+  }
+
+  private static long hash(long hash, String value) {
+    // FNV-1a over chars, with a separator between values
+    for (int i = 0; i < value.length(); i++) {
+      hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+    }
+    return (hash ^ 0xFFFF) * 0x100000001b3L;
+  }
+
+  /**
+   * Name with tags, e.g. {@code request{endpoint=/orders,shard=3}}.
+   *
+   * @return text.
+   */
+  @Override
+  public String toString() {
+    return text;
+  }
+}
@@ -0,0 +1,39 @@
+package io.scalecube.trace.service.reporter.metrics;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Receives the reports of all series of a {@link MetricsRegistry}, on the tick thread of its
+ * clock. Series which had no samples in the interval are not reported.
+ */
+public interface MetricsListener extends AutoCloseable {
+
+  /**
+   * Called for a latency report of a series.
+   *
+   * @param timestamp tick time, epoch millis.
+   * @param id series
+   * @param intervalHistogram the histogram, reused on the next tick so it must not be kept.
+   */
+  default void onLatency(long timestamp, MetricId id, Histogram intervalHistogram) {
+    // no-op
+  }
+
+  /**
+   * Called for a rate report of a series.
+   *
+   * @param timestamp tick time, epoch millis.
+   * @param id series
+   * @param messagesPerSec since last report
+   * @param bytesPerSec since last report
+   */
+  default void onThroughput(
+      long timestamp, MetricId id, double messagesPerSec, double bytesPerSec) {
+    // no-op
+  }
+
+  @Override
+  default void close() {
+    // no-op
+  }
+}
@@ -0,0 +1,114 @@
+package io.scalecube.trace.service.reporter.metrics;
+
+import io.scalecube.trace.TraceHandle;
+import io.scalecube.trace.service.reporter.AbstractPerformanceListener;
+import io.scalecube.trace.service.reporter.PublisherContext;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import org.HdrHistogram.Histogram;
+import reactor.core.Exceptions;
+
+/**
+ * Metrics listener which adds the reports of every series to time traces and publishes them, see
+ * {@link AbstractPerformanceListener}. Latency series get a trace per percentile, throughput
+ * series a trace of messages per second.
+ */
+public final class MetricsListenerImpl extends AbstractPerformanceListener
+    implements MetricsListener, Cloneable {
+
+  private double scalingRatio = 1000.0; // microseconds;
+  private double[] percentiles = {50d, 99d};
+  private Map<MetricId, TraceHandle[]> latencyTraces = new IdentityHashMap<>();
+  private Map<MetricId, TraceHandle> throughputTraces = new IdentityHashMap<>();
+
+  /**
+   * {@link PublisherContext} settings function.
+   *
+   * @param op operator
+   * @return new {@code MetricsListenerImpl} instance
+   */
+  public MetricsListenerImpl publisher(UnaryOperator<PublisherContext> op) {
+    MetricsListenerImpl c = clone();
+    c.publisherContext = op.apply(c.publisherContext);
+    return c;
+  }
+
+  /**
+   * Setter for {@code scalingRatio}.
+   *
+   * @param scalingRatio scaling ratio
+   * @return new {@code MetricsListenerImpl} instance
+   */
+  public MetricsListenerImpl scalingRatio(double scalingRatio) {
+    MetricsListenerImpl c = clone();
+    c.scalingRatio = scalingRatio;
+    return c;
+  }
+
+  /**
+   * Setter for {@code percentiles} function.
+   *
+   * @param percentiles percentiles
+   * @return new {@code MetricsListenerImpl} instance
+   */
+  public MetricsListenerImpl percentiles(Collection<Double> percentiles) {
+    MetricsListenerImpl c = clone();
+    c.percentiles = percentiles.stream().mapToDouble(Double::doubleValue).toArray();
+    return c;
+  }
+
+  /**
+   * Setter for {@code percentiles}.
+   *
+   * @param percentiles percentiles
+   * @return new {@code MetricsListenerImpl} instance
+   */
+  public MetricsListenerImpl percentiles(double... percentiles) {
+    MetricsListenerImpl c = clone();
+    c.percentiles = percentiles;
+    return c;
+  }
+
+  @Override
+  public void onLatency(long timestamp, MetricId id, Histogram intervalHistogram) {
+    TraceHandle[] handles = latencyTraces.get(id);
+    if (handles == null) {
+      handles = new TraceHandle[percentiles.length];
+      for (int i = 0; i < percentiles.length; i++) {
+        handles[i] = reporter.timeSeries("[p" + percentiles[i] + "] " + id, "latency");
+      }
+      latencyTraces.put(id, handles);
+      schedulePublishing();
+    }
+    for (int i = 0; i < percentiles.length; i++) {
+      double value = intervalHistogram.getValueAtPercentile(percentiles[i]) / scalingRatio;
+      handles[i].add(timestamp, value);
+    }
+  }
+
+  @Override
+  public void onThroughput(
+      long timestamp, MetricId id, double messagesPerSec, double bytesPerSec) {
+    TraceHandle handle = throughputTraces.get(id);
+    if (handle == null) {
+      handle = reporter.timeSeries(id.toString(), "throughput");
+      throughputTraces.put(id, handle);
+      schedulePublishing();
+    }
+    handle.add(timestamp, messagesPerSec);
+  }
+
+  @Override
+  public MetricsListenerImpl clone() {
+    try {
+      MetricsListenerImpl c = (MetricsListenerImpl) super.clone();
+      c.latencyTraces = new IdentityHashMap<>();
+      c.throughputTraces = new IdentityHashMap<>();
+      return c;
+    } catch (CloneNotSupportedException e) {
+      throw Exceptions.propagate(e);
+    }
+  }
+}
@@ -0,0 +1,189 @@
+package io.scalecube.trace.service.reporter.metrics;
+
+import io.scalecube.trace.service.reporter.ReportingClock;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import org.agrona.CloseHelper;
+import org.agrona.collections.Long2ObjectHashMap;
+import reactor.core.Disposable;
+
+/**
+ * Registry of latency and throughput series keyed by name and tags, e.g. latency per endpoint per
+ * client per shard. Series are created lazily on first lookup and are all sampled on one tick of
+ * a shared {@link ReportingClock}, instead of a reporter and a timer per series.
+ *
+ * <p>Lookups are allocation free (besides the tags array), but take a lock; hot paths should
+ * resolve a {@link LatencyMetric} or {@link ThroughputMetric} once and keep it. Tags are given as
+ * {@code key, value} pairs, in a stable order. Once {@code maxSeries} series exist, lookups of new
+ * series return a shared overflow series named {@link #OVERFLOW_NAME}, and are counted in {@link
+ * #rejectedSeries()}.
+ */
+public final class MetricsRegistry implements AutoCloseable {
+
+  public static final String OVERFLOW_NAME = "overflow";
+  public static final int DEFAULT_MAX_SERIES = 10_000;
+  public static final int DEFAULT_SIGNIFICANT_DIGITS = 2;
+
+  private static final String[] NO_TAGS = {};
+
+  private final MetricsListener listener;
+  private final int maxSeries;
+  private final int significantDigits;
+  private final Long2ObjectHashMap<Object> series = new Long2ObjectHashMap<>();
+  private final AtomicLong rejected = new AtomicLong();
+  private final LatencyMetric latencyOverflow;
+  private final ThroughputMetric throughputOverflow;
+  private final Disposable registration;
+
+  // appended under the lock, the tick thread reads up to the volatile count
+  private volatile LatencyMetric[] latencies = new LatencyMetric[16];
+  private volatile ThroughputMetric[] throughputs = new ThroughputMetric[16];
+  private volatile int latencyCount;
+  private volatile int throughputCount;
+
+  /**
+   * Create registry with {@link #DEFAULT_MAX_SERIES} and {@link #DEFAULT_SIGNIFICANT_DIGITS}.
+   *
+   * @param clock clock to sample the series on.
+   * @param listener listener of the reports.
+   */
+  public MetricsRegistry(ReportingClock clock, MetricsListener listener) {
+    this(clock, listener, DEFAULT_MAX_SERIES, DEFAULT_SIGNIFICANT_DIGITS);
+  }
+
+  /**
+   * Create registry.
+   *
+   * @param clock clock to sample the series on.
+   * @param listener listener of the reports.
+   * @param maxSeries cardinality cap, latency and throughput series together.
+   * @param significantDigits precision of the latency histograms, they are auto-resizing so the
+   *     memory of a series depends on this and on the range of its values.
+   */
+  public MetricsRegistry(
+      ReportingClock clock, MetricsListener listener, int maxSeries, int significantDigits) {
+    this.listener = listener;
+    this.maxSeries = maxSeries;
+    this.significantDigits = significantDigits;
+    this.latencyOverflow =
+        new LatencyMetric(new MetricId(OVERFLOW_NAME, NO_TAGS), significantDigits);
+    this.throughputOverflow = new ThroughputMetric(new MetricId(OVERFLOW_NAME, NO_TAGS));
+    addLatency(latencyOverflow);
+    addThroughput(throughputOverflow);
+    this.registration = clock.register(this::onTick);
+  }
+
+  /**
+   * Get or create latency series.
+   *
+   * @param name name of the series.
+   * @param tags {@code key, value} pairs.
+   * @return series, or the overflow series if the cardinality cap is reached.
+   */
+  public synchronized LatencyMetric latency(String name, String... tags) {
+    Object metric = lookup(name, tags, true);
+    return metric != null ? (LatencyMetric) metric : latencyOverflow;
+  }
+
+  /**
+   * Get or create throughput series.
+   *
+   * @param name name of the series.
+   * @param tags {@code key, value} pairs.
+   * @return series, or the overflow series if the cardinality cap is reached.
+   */
+  public synchronized ThroughputMetric throughput(String name, String... tags) {
+    Object metric = lookup(name, tags, false);
+    return metric != null ? (ThroughputMetric) metric : throughputOverflow;
+  }
+
+  private Object lookup(String name, String[] tags, boolean latency) {
+    if ((tags.length & 1) != 0) {
+      throw new IllegalArgumentException("tags must be key, value pairs: " + Arrays.toString(tags));
+    }
+    long hash = MetricId.hash(name, tags) << 1 | (latency ? 1 : 0);
+    // collisions are resolved by probing the next keys of the same kind
+    for (; ; hash += 2) {
+      Object metric = series.get(hash);
+      if (metric == null) {
+        break;
+      }
+      MetricId id = latency ? ((LatencyMetric) metric).id() : ((ThroughputMetric) metric).id();
+      if (id.matches(name, tags)) {
+        return metric;
+      }
+    }
+    if (series.size() >= maxSeries) {
+      rejected.incrementAndGet();
+      return null;
+    }
+    MetricId id = new MetricId(name, tags);
+    Object metric;
+    if (latency) {
+      LatencyMetric latencyMetric = new LatencyMetric(id, significantDigits);
+      addLatency(latencyMetric);
+      metric = latencyMetric;
+    } else {
+      ThroughputMetric throughputMetric = new ThroughputMetric(id);
+      addThroughput(throughputMetric);
+      metric = throughputMetric;
+    }
+    series.put(hash, metric);
+    return metric;
+  }
+
+  private void addLatency(LatencyMetric metric) {
+    int count = latencyCount;
+    if (count == latencies.length) {
+      latencies = Arrays.copyOf(latencies, count << 1);
+    }
+    latencies[count] = metric;
+    latencyCount = count + 1;
+  }
+
+  private void addThroughput(ThroughputMetric metric) {
+    int count = throughputCount;
+    if (count == throughputs.length) {
+      throughputs = Arrays.copyOf(throughputs, count << 1);
+    }
+    throughputs[count] = metric;
+    throughputCount = count + 1;
+  }
+
+  private void onTick(long timestamp) {
+    int latencyCount = this.latencyCount;
+    LatencyMetric[] latencies = this.latencies;
+    for (int i = 0; i < latencyCount; i++) {
+      latencies[i].report(timestamp, listener);
+    }
+    int throughputCount = this.throughputCount;
+    ThroughputMetric[] throughputs = this.throughputs;
+    for (int i = 0; i < throughputCount; i++) {
+      throughputs[i].report(timestamp, listener);
+    }
+  }
+
+  /**
+   * Number of live series, latency and throughput ones, not counting the overflow series.
+   *
+   * @return number of series.
+   */
+  public synchronized int size() {
+    return series.size();
+  }
+
+  /**
+   * Number of lookups of new series rejected by the cardinality cap.
+   *
+   * @return number of rejected lookups.
+   */
+  public long rejectedSeries() {
+    return rejected.get();
+  }
+
+  @Override
+  public void close() {
+    registration.dispose();
+    CloseHelper.quietClose(listener);
+  }
+}
@@ -0,0 +1,51 @@
+package io.scalecube.trace.service.reporter.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pre-resolved throughput series of {@link MetricsRegistry}. Counting is allocation free, the
+ * handle can be shared between threads.
+ */
+public final class ThroughputMetric {
+
+  private final MetricId id;
+  private final LongAdder messages = new LongAdder();
+  private final LongAdder bytes = new LongAdder();
+  private long lastMessages;
+  private long lastBytes;
+  private long lastNanos = System.nanoTime();
+
+  ThroughputMetric(MetricId id) {
+    this.id = id;
+  }
+
+  public MetricId id() {
+    return id;
+  }
+
+  /**
+   * Notify of number of messages and bytes received, sent, etc.
+   *
+   * @param messages received, sent, etc.
+   * @param bytes received, sent, etc.
+   */
+  public void onMessage(long messages, long bytes) {
+    this.messages.add(messages);
+    this.bytes.add(bytes);
+  }
+
+  void report(long timestamp, MetricsListener listener) {
+    long currentMessages = messages.sum();
+    long currentBytes = bytes.sum();
+    long now = System.nanoTime();
+    final long messagesDelta = currentMessages - lastMessages;
+    final long bytesDelta = currentBytes - lastBytes;
+    double seconds = (now - lastNanos) / 1e9;
+    lastMessages = currentMessages;
+    lastBytes = currentBytes;
+    lastNanos = now;
+    if (messagesDelta > 0 || bytesDelta > 0) {
+      listener.onThroughput(timestamp, id, messagesDelta / seconds, bytesDelta / seconds);
+    }
+  }
+}
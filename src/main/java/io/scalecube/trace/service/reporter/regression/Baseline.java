@@ -0,0 +1,179 @@
+package io.scalecube.trace.service.reporter.regression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.scalecube.trace.service.reporter.Publisher;
+import io.scalecube.trace.service.reporter.latency.HistogramLogReportingLatencyListener;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import reactor.core.Exceptions;
+
+/**
+ * Results of a previous run to compare against, see {@link RegressionDetector}. A baseline is made
+ * of latency interval histograms, read from logs written by {@link
+ * HistogramLogReportingLatencyListener}, and of numeric series by trace name, read from trace json
+ * as written by {@link Publisher#serialize}. The group of a series tells how it's compared, e.g.
+ * series of the {@value #LATENCY_GROUP} group regress when they grow.
+ */
+public final class Baseline {
+
+  public static final String LATENCY_GROUP = "latency";
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final List<Histogram> latencyIntervals = new ArrayList<>();
+  private final Map<String, double[]> series = new LinkedHashMap<>();
+  private final Map<String, String> groups = new HashMap<>();
+
+  private Baseline() {}
+
+  static Baseline of(List<Histogram> latencyIntervals, Map<String, double[]> series) {
+    Baseline baseline = new Baseline();
+    baseline.latencyIntervals.addAll(latencyIntervals);
+    baseline.series.putAll(series);
+    return baseline;
+  }
+
+  /**
+   * Load a baseline from a file, or from all the files of a directory. Files with the {@code
+   * .json} extension are read as traces, any other file as a histogram log. Corrected histograms
+   * of the logs are skipped.
+   *
+   * @param path baseline file or directory.
+   * @return baseline
+   */
+  public static Baseline load(Path path) {
+    Baseline baseline = new Baseline();
+    try {
+      List<Path> files;
+      if (Files.isDirectory(path)) {
+        try (Stream<Path> list = Files.list(path)) {
+          files = list.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+      } else {
+        files = Collections.singletonList(path);
+      }
+      for (Path file : files) {
+        if (file.getFileName().toString().endsWith(".json")) {
+          baseline.readTraces(file);
+        } else {
+          baseline.readHistogramLog(file);
+        }
+      }
+    } catch (IOException e) {
+      throw Exceptions.propagate(e);
+    }
+    return baseline;
+  }
+
+  private void readHistogramLog(Path file) throws IOException {
+    HistogramLogReader logReader = new HistogramLogReader(file.toFile());
+    try {
+      EncodableHistogram histogram;
+      while ((histogram = logReader.nextIntervalHistogram()) != null) {
+        if (histogram instanceof Histogram
+            && !HistogramLogReportingLatencyListener.CORRECTED_TAG.equals(histogram.getTag())) {
+          latencyIntervals.add((Histogram) histogram);
+        }
+      }
+    } finally {
+      logReader.close();
+    }
+  }
+
+  private void readTraces(Path file) throws IOException {
+    readTraces(MAPPER.readTree(file.toFile()));
+  }
+
+  private void readTraces(JsonNode node) {
+    if (node.isArray()) {
+      node.forEach(this::readTraces);
+      return;
+    }
+    if (!node.isObject()) {
+      return;
+    }
+    JsonNode name = node.get("name");
+    JsonNode yaxis = node.get("y");
+    if (name != null && yaxis != null && yaxis.isArray()) {
+      double[] values = new double[yaxis.size()];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = yaxis.get(i).asDouble();
+      }
+      series.merge(name.asText(), values, Baseline::concat);
+      JsonNode group = node.get("group");
+      if (group != null && group.isTextual()) {
+        groups.put(name.asText(), group.asText());
+      }
+      return;
+    }
+    node.forEach(this::readTraces);
+  }
+
+  private static double[] concat(double[] first, double[] second) {
+    double[] result = new double[first.length + second.length];
+    System.arraycopy(first, 0, result, 0, first.length);
+    System.arraycopy(second, 0, result, first.length, second.length);
+    return result;
+  }
+
+  /**
+   * Latency interval histograms in the order they were logged.
+   *
+   * @return latency intervals, empty if there are none.
+   */
+  public List<Histogram> latencyIntervals() {
+    return Collections.unmodifiableList(latencyIntervals);
+  }
+
+  /**
+   * Values of a numeric series, e.g. the throughput trace.
+   *
+   * @param name name of the trace.
+   * @return values, or null if the baseline has no such series.
+   */
+  public double[] series(String name) {
+    return series.get(name);
+  }
+
+  /**
+   * Group of a numeric series, e.g. {@value #LATENCY_GROUP}.
+   *
+   * @param name name of the trace.
+   * @return group, or null if the series has none.
+   */
+  public String group(String name) {
+    return groups.get(name);
+  }
+
+  /**
+   * Names of the numeric series.
+   *
+   * @return series names.
+   */
+  public Set<String> seriesNames() {
+    return Collections.unmodifiableSet(series.keySet());
+  }
+
+  @Override
+  public String toString() {
+    return "Baseline [latencyIntervals="
+        + latencyIntervals.size()
+        + ", series="
+        + series.keySet()
+        + "]";
+  }
+}
@@ -0,0 +1,90 @@
+package io.scalecube.trace.service.reporter.regression;
+
+import java.util.Locale;
+
+/**
+ * Comparison of a single statistic, e.g. the 99th latency percentile, between the baseline and the
+ * current run. Changes are relative to the baseline value, {@code 0.15} is 15% more than the
+ * baseline.
+ */
+public final class Comparison {
+
+  private final String statistic;
+  private final double baselineValue;
+  private final double currentValue;
+  private final double lowerChange;
+  private final double upperChange;
+  private final boolean regression;
+
+  /**
+   * Create comparison.
+   *
+   * @param statistic name of the statistic.
+   * @param baselineValue value of the baseline.
+   * @param currentValue value of the current run.
+   * @param lowerChange lower bound of the confidence interval of the change.
+   * @param upperChange upper bound of the confidence interval of the change.
+   * @param regression whether the change is a regression.
+   */
+  public Comparison(
+      String statistic,
+      double baselineValue,
+      double currentValue,
+      double lowerChange,
+      double upperChange,
+      boolean regression) {
+    this.statistic = statistic;
+    this.baselineValue = baselineValue;
+    this.currentValue = currentValue;
+    this.lowerChange = lowerChange;
+    this.upperChange = upperChange;
+    this.regression = regression;
+  }
+
+  public String statistic() {
+    return statistic;
+  }
+
+  public double baselineValue() {
+    return baselineValue;
+  }
+
+  public double currentValue() {
+    return currentValue;
+  }
+
+  /**
+   * Relative change of the current value.
+   *
+   * @return change, e.g. {@code 0.15} for 15% more than the baseline.
+   */
+  public double change() {
+    return baselineValue != 0 ? currentValue / baselineValue - 1 : 0;
+  }
+
+  public double lowerChange() {
+    return lowerChange;
+  }
+
+  public double upperChange() {
+    return upperChange;
+  }
+
+  public boolean isRegression() {
+    return regression;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        Locale.ROOT,
+        "%s: %.2f -> %.2f (%+.1f%%, CI [%+.1f%%, %+.1f%%])%s",
+        statistic,
+        baselineValue,
+        currentValue,
+        change() * 100,
+        lowerChange * 100,
+        upperChange * 100,
+        regression ? " REGRESSION" : "");
+  }
+}
@@ -0,0 +1,413 @@
+package io.scalecube.trace.service.reporter.regression;
+
+import io.scalecube.trace.service.reporter.latency.LatencyListener;
+import io.scalecube.trace.service.reporter.throughput.ThroughputListener;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.agrona.collections.LongArrayList;
+
+/**
+ * Compares the results of the current run with a {@link Baseline} and decides whether the run
+ * regressed. Latency percentiles are compared on the merged interval histograms, numeric series
+ * on their means: series of the {@value Baseline#LATENCY_GROUP} group (e.g. percentile traces of
+ * {@link io.scalecube.trace.service.reporter.latency.LatencyListenerImpl}) regress when they
+ * grow more than the allowed latency increase, any other series (throughput) when it drops more
+ * than the allowed throughput decrease. The confidence interval of every change is estimated by
+ * bootstrap: intervals (or series values) of both runs are resampled with replacement and the
+ * statistic is recomputed on every resample.
+ *
+ * <p>A change is a regression only if it exceeds its threshold and its confidence interval
+ * excludes zero, so the noise of short runs doesn't fail the build.
+ *
+ * <pre>{@code
+ * RegressionDetector detector = new RegressionDetector(Baseline.load(baselineDir));
+ * LatencyReporter latency = LatencyReporter.create(detector.latencyListener(), ...).start();
+ * ...
+ * latency.close();
+ * detector.verdict().assertPassed();
+ * }</pre>
+ */
+public final class RegressionDetector {
+
+  public static final double DEFAULT_MAX_LATENCY_INCREASE = 0.10;
+  public static final double DEFAULT_MAX_THROUGHPUT_DECREASE = 0.10;
+  public static final double DEFAULT_CONFIDENCE = 0.95;
+  public static final int DEFAULT_RESAMPLES = 1000;
+
+  private final Baseline baseline;
+  private double[] percentiles = {50d, 90d, 99d};
+  private double maxLatencyIncrease = DEFAULT_MAX_LATENCY_INCREASE;
+  private double maxThroughputDecrease = DEFAULT_MAX_THROUGHPUT_DECREASE;
+  private double confidence = DEFAULT_CONFIDENCE;
+  private int resamples = DEFAULT_RESAMPLES;
+  private long seed = 42;
+
+  // results of the current run
+  private final List<Histogram> latencyIntervals = new ArrayList<>();
+  private final Map<String, List<Double>> series = new LinkedHashMap<>();
+
+  public RegressionDetector(Baseline baseline) {
+    this.baseline = baseline;
+  }
+
+  /**
+   * Setter for the compared latency percentiles, 50, 90 and 99 by default.
+   *
+   * @param percentiles percentiles
+   * @return RegressionDetector
+   */
+  public RegressionDetector percentiles(double... percentiles) {
+    this.percentiles = percentiles;
+    return this;
+  }
+
+  /**
+   * Setter for the allowed relative increase of a latency percentile.
+   *
+   * @param maxLatencyIncrease e.g. 0.15 to allow 15% more than the baseline.
+   * @return RegressionDetector
+   */
+  public RegressionDetector maxLatencyIncrease(double maxLatencyIncrease) {
+    this.maxLatencyIncrease = maxLatencyIncrease;
+    return this;
+  }
+
+  /**
+   * Setter for the allowed relative decrease of the mean throughput.
+   *
+   * @param maxThroughputDecrease e.g. 0.15 to allow 15% less than the baseline.
+   * @return RegressionDetector
+   */
+  public RegressionDetector maxThroughputDecrease(double maxThroughputDecrease) {
+    this.maxThroughputDecrease = maxThroughputDecrease;
+    return this;
+  }
+
+  /**
+   * Setter for the confidence level of the confidence intervals.
+   *
+   * @param confidence e.g. 0.95
+   * @return RegressionDetector
+   */
+  public RegressionDetector confidence(double confidence) {
+    this.confidence = confidence;
+    return this;
+  }
+
+  /**
+   * Setter for the number of bootstrap resamples.
+   *
+   * @param resamples number of resamples
+   * @return RegressionDetector
+   */
+  public RegressionDetector resamples(int resamples) {
+    this.resamples = resamples;
+    return this;
+  }
+
+  /**
+   * Setter for the seed of the resampling, the same seed gives the same verdict for the same data.
+   *
+   * @param seed random seed
+   * @return RegressionDetector
+   */
+  public RegressionDetector seed(long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  /**
+   * Listener collecting the latency interval histograms of the current run.
+   *
+   * @return latency listener
+   */
+  public LatencyListener latencyListener() {
+    return new LatencyListener() {
+      @Override
+      public void onReport(Histogram intervalHistogram) {
+        synchronized (RegressionDetector.this) {
+          latencyIntervals.add(intervalHistogram.copy());
+        }
+      }
+
+      @Override
+      public void onTerminate(Histogram accumulatedHistogram) {
+        // compared interval by interval
+      }
+
+      @Override
+      public void close() {
+        // nothing to release
+      }
+    };
+  }
+
+  /**
+   * Listener collecting the messages per second of the current run as a series, compared with the
+   * baseline series of the same name.
+   *
+   * @param name name of the series, e.g. name of the throughput trace of the baseline.
+   * @return throughput listener
+   */
+  public ThroughputListener throughputListener(String name) {
+    return new ThroughputListener() {
+      @Override
+      public void onReport(double messagesPerSec, double bytesPerSec) {
+        synchronized (RegressionDetector.this) {
+          series.computeIfAbsent(name, k -> new ArrayList<>()).add(messagesPerSec);
+        }
+      }
+
+      @Override
+      public void close() {
+        // nothing to release
+      }
+    };
+  }
+
+  /**
+   * Compare the results collected by the listeners of this detector with the baseline.
+   *
+   * @return verdict
+   */
+  public synchronized Verdict verdict() {
+    Map<String, double[]> current = new LinkedHashMap<>();
+    series.forEach(
+        (name, values) ->
+            current.put(name, values.stream().mapToDouble(Double::doubleValue).toArray()));
+    return verdict(Baseline.of(latencyIntervals, current));
+  }
+
+  /**
+   * Compare the results of another run with the baseline.
+   *
+   * @param current results of the current run.
+   * @return verdict
+   * @throws IllegalStateException if the runs have nothing in common to compare.
+   */
+  public Verdict verdict(Baseline current) {
+    List<Comparison> comparisons = new ArrayList<>();
+    if (!baseline.latencyIntervals().isEmpty() && !current.latencyIntervals().isEmpty()) {
+      comparisons.addAll(
+          compareLatency(baseline.latencyIntervals(), current.latencyIntervals()));
+    }
+    for (String name : current.seriesNames()) {
+      double[] baselineValues = baseline.series(name);
+      double[] currentValues = current.series(name);
+      if (baselineValues != null && baselineValues.length > 0 && currentValues.length > 0) {
+        boolean latency =
+            Baseline.LATENCY_GROUP.equals(current.group(name))
+                || Baseline.LATENCY_GROUP.equals(baseline.group(name));
+        comparisons.add(compareSeries(name, latency, baselineValues, currentValues));
+      }
+    }
+    if (comparisons.isEmpty()) {
+      throw new IllegalStateException(
+          "Nothing to compare, baseline: " + baseline + ", current: " + current);
+    }
+    return new Verdict(comparisons);
+  }
+
+  private List<Comparison> compareLatency(List<Histogram> baseline, List<Histogram> current) {
+    // intervals are kept as sparse counts over the values recorded by any of them, so that
+    // resamples are merged without touching the empty buckets of the histograms
+    long[] values = distinctValues(baseline, current);
+    SparseCounts[] baselineCounts = sparse(baseline, values);
+    SparseCounts[] currentCounts = sparse(current, values);
+    long[] bins = new long[values.length];
+
+    double[] baselinePoint = valuesAtPercentiles(baselineCounts, null, bins, values);
+    double[] currentPoint = valuesAtPercentiles(currentCounts, null, bins, values);
+
+    SplittableRandom random = new SplittableRandom(seed);
+    double[][] changes = new double[percentiles.length][resamples];
+    for (int r = 0; r < resamples; r++) {
+      double[] baselineValues = valuesAtPercentiles(baselineCounts, random, bins, values);
+      double[] currentValues = valuesAtPercentiles(currentCounts, random, bins, values);
+      for (int i = 0; i < percentiles.length; i++) {
+        changes[i][r] = change(baselineValues[i], currentValues[i]);
+      }
+    }
+
+    List<Comparison> comparisons = new ArrayList<>();
+    for (int i = 0; i < percentiles.length; i++) {
+      double[] interval = confidenceInterval(changes[i]);
+      double change = change(baselinePoint[i], currentPoint[i]);
+      comparisons.add(
+          new Comparison(
+              "latency p" + percentiles[i],
+              baselinePoint[i],
+              currentPoint[i],
+              interval[0],
+              interval[1],
+              change > maxLatencyIncrease && interval[0] > 0));
+    }
+    return comparisons;
+  }
+
+  private Comparison compareSeries(
+      String name, boolean latency, double[] baseline, double[] current) {
+    SplittableRandom random = new SplittableRandom(seed);
+    double[] changes = new double[resamples];
+    for (int r = 0; r < resamples; r++) {
+      changes[r] = change(mean(baseline, random), mean(current, random));
+    }
+    double[] interval = confidenceInterval(changes);
+    double baselineMean = mean(baseline, null);
+    double currentMean = mean(current, null);
+    double change = change(baselineMean, currentMean);
+    if (latency) {
+      // higher is worse
+      return new Comparison(
+          "latency " + name,
+          baselineMean,
+          currentMean,
+          interval[0],
+          interval[1],
+          change > maxLatencyIncrease && interval[0] > 0);
+    }
+    return new Comparison(
+        "throughput " + name,
+        baselineMean,
+        currentMean,
+        interval[0],
+        interval[1],
+        change < -maxThroughputDecrease && interval[1] < 0);
+  }
+
+  private static double change(double baselineValue, double currentValue) {
+    return baselineValue != 0 ? currentValue / baselineValue - 1 : 0;
+  }
+
+  private double[] confidenceInterval(double[] changes) {
+    Arrays.sort(changes);
+    double alpha = (1 - confidence) / 2;
+    int lower = (int) Math.floor(alpha * (changes.length - 1));
+    int upper = (int) Math.ceil((1 - alpha) * (changes.length - 1));
+    return new double[] {changes[lower], changes[upper]};
+  }
+
+  /**
+   * Mean of the values, or of a resample of them if random is given.
+   */
+  private static double mean(double[] values, SplittableRandom random) {
+    double sum = 0;
+    for (int i = 0; i < values.length; i++) {
+      sum += random != null ? values[random.nextInt(values.length)] : values[i];
+    }
+    return sum / values.length;
+  }
+
+  /**
+   * Merge all the intervals, or a resample of them if random is given, into the bins.
+   */
+  private static long merge(SparseCounts[] intervals, SplittableRandom random, long[] bins) {
+    Arrays.fill(bins, 0);
+    long total = 0;
+    for (int i = 0; i < intervals.length; i++) {
+      SparseCounts interval =
+          random != null ? intervals[random.nextInt(intervals.length)] : intervals[i];
+      for (int j = 0; j < interval.indexes.length; j++) {
+        bins[interval.indexes[j]] += interval.counts[j];
+      }
+      total += interval.totalCount;
+    }
+    return total;
+  }
+
+  private double[] valuesAtPercentiles(
+      SparseCounts[] intervals, SplittableRandom random, long[] bins, long[] values) {
+    long totalCount = merge(intervals, random, bins);
+    double[] result = new double[percentiles.length];
+    for (int i = 0; i < percentiles.length; i++) {
+      long rank = Math.max(1, (long) Math.ceil(percentiles[i] / 100 * totalCount));
+      long cumulative = 0;
+      int index = 0;
+      for (; index < bins.length - 1; index++) {
+        cumulative += bins[index];
+        if (cumulative >= rank) {
+          break;
+        }
+      }
+      result[i] = totalCount > 0 ? values[index] : 0;
+    }
+    return result;
+  }
+
+  private static long[] distinctValues(List<Histogram> baseline, List<Histogram> current) {
+    LongArrayList values = new LongArrayList();
+    for (List<Histogram> intervals : Arrays.asList(baseline, current)) {
+      for (Histogram interval : intervals) {
+        for (HistogramIterationValue value : interval.recordedValues()) {
+          values.addLong(value.getValueIteratedTo());
+        }
+      }
+    }
+    long[] result = values.toLongArray();
+    Arrays.sort(result);
+    int size = 0;
+    for (int i = 0; i < result.length; i++) {
+      if (size == 0 || result[size - 1] != result[i]) {
+        result[size++] = result[i];
+      }
+    }
+    return Arrays.copyOf(result, size);
+  }
+
+  private static SparseCounts[] sparse(List<Histogram> intervals, long[] values) {
+    SparseCounts[] result = new SparseCounts[intervals.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = new SparseCounts(intervals.get(i), values);
+    }
+    return result;
+  }
+
+  private static final class SparseCounts {
+
+    private final int[] indexes;
+    private final long[] counts;
+    private final long totalCount;
+
+    private SparseCounts(Histogram histogram, long[] values) {
+      LongArrayList indexList = new LongArrayList();
+      LongArrayList countList = new LongArrayList();
+      for (HistogramIterationValue value : histogram.recordedValues()) {
+        indexList.addLong(Arrays.binarySearch(values, value.getValueIteratedTo()));
+        countList.addLong(value.getCountAtValueIteratedTo());
+      }
+      this.indexes = new int[indexList.size()];
+      for (int i = 0; i < indexes.length; i++) {
+        indexes[i] = (int) indexList.getLong(i);
+      }
+      this.counts = countList.toLongArray();
+      this.totalCount = histogram.getTotalCount();
+    }
+  }
+
+  /**
+   * Compare two stored runs, exits with 1 if the current run regressed. Usage: {@code
+   * RegressionDetector <baseline file or dir> <current file or dir>}.
+   *
+   * @param args arguments
+   */
+  public static void main(String[] args) {
+    if (args.length != 2) {
+      System.err.println("Usage: RegressionDetector <baseline> <current>");
+      return;
+    }
+    Verdict verdict =
+        new RegressionDetector(Baseline.load(Paths.get(args[0])))
+            .verdict(Baseline.load(Paths.get(args[1])));
+    System.out.println(verdict);
+    if (!verdict.passed()) {
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package io.scalecube.trace.service.reporter.regression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Outcome of a comparison with the baseline, see {@link RegressionDetector#verdict()}.
+ */
+public final class Verdict {
+
+  private final List<Comparison> comparisons;
+
+  Verdict(List<Comparison> comparisons) {
+    this.comparisons = Collections.unmodifiableList(new ArrayList<>(comparisons));
+  }
+
+  public List<Comparison> comparisons() {
+    return comparisons;
+  }
+
+  /**
+   * Comparisons which regressed beyond their threshold.
+   *
+   * @return regressions, empty if the run passed.
+   */
+  public List<Comparison> regressions() {
+    return comparisons.stream().filter(Comparison::isRegression).collect(Collectors.toList());
+  }
+
+  public boolean passed() {
+    return regressions().isEmpty();
+  }
+
+  /**
+   * Fail the calling test if the run regressed.
+   *
+   * @throws AssertionError with the regressions, if there are any.
+   */
+  public void assertPassed() {
+    List<Comparison> regressions = regressions();
+    if (!regressions.isEmpty()) {
+      StringBuilder message = new StringBuilder("Performance regressed against the baseline:");
+      for (Comparison comparison : regressions) {
+        message.append(System.lineSeparator()).append("  ").append(comparison);
+      }
+      throw new AssertionError(message.toString());
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder(passed() ? "PASSED" : "FAILED");
+    for (Comparison comparison : comparisons) {
+      result.append(System.lineSeparator()).append("  ").append(comparison);
+    }
+    return result.toString();
+  }
+}
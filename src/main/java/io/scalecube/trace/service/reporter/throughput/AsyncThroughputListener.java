@@ -0,0 +1,74 @@
+package io.scalecube.trace.service.reporter.throughput;
+
+import io.scalecube.trace.service.reporter.DispatchPolicy;
+import io.scalecube.trace.service.reporter.ListenerDispatcher;
+import org.agrona.CloseHelper;
+
+/** Throughput listener which calls the delegate on its own worker thread. */
+public class AsyncThroughputListener implements ThroughputListener {
+
+  public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+  private final ThroughputListener delegate;
+  private final ListenerDispatcher dispatcher;
+
+  /**
+   * Create asynchronous listener.
+   *
+   * @param delegate listener to call
+   * @param capacity capacity of the queue of events
+   * @param policy what to do when the queue is full
+   */
+  public AsyncThroughputListener(
+      ThroughputListener delegate, int capacity, DispatchPolicy policy) {
+    this.delegate = delegate;
+    this.dispatcher =
+        new ListenerDispatcher(
+            "throughput-listener-" + delegate.getClass().getSimpleName(), capacity, policy);
+  }
+
+  /**
+   * Wrap every listener into its own asynchronous listener.
+   *
+   * @param capacity capacity of the queue of events
+   * @param policy what to do when the queue is full
+   * @param listeners listeners
+   * @return asynchronous listeners
+   */
+  public static AsyncThroughputListener[] wrap(
+      int capacity, DispatchPolicy policy, ThroughputListener... listeners) {
+    AsyncThroughputListener[] result = new AsyncThroughputListener[listeners.length];
+    for (int i = 0; i < listeners.length; i++) {
+      result[i] = new AsyncThroughputListener(listeners[i], capacity, policy);
+    }
+    return result;
+  }
+
+  @Override
+  public void onReport(double messagesPerSec, double bytesPerSec) {
+    dispatcher.dispatch(() -> delegate.onReport(messagesPerSec, bytesPerSec));
+  }
+
+  @Override
+  public void onReport(long timestamp, double messagesPerSec, double bytesPerSec) {
+    dispatcher.dispatch(() -> delegate.onReport(timestamp, messagesPerSec, bytesPerSec));
+  }
+
+  /**
+   * Number of events dropped because the queue was full.
+   *
+   * @return dropped events.
+   */
+  public long droppedEvents() {
+    return dispatcher.droppedEvents();
+  }
+
+  @Override
+  public void close() {
+    try {
+      dispatcher.close();
+    } finally {
+      CloseHelper.quietClose(delegate);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package io.scalecube.trace.service.reporter.throughput;
+
+import io.scalecube.trace.service.reporter.CsvChannelWriter;
+import io.scalecube.trace.service.reporter.CsvFlushPolicy;
+import java.time.Duration;
+
+/**
+ * CSV throughput listener which writes one line per report without allocating and without
+ * printing to the console, see {@link CsvChannelWriter}. The columns are the same as in {@link
+ * CsvReportingThroughputListener}, the last line holds the averages of the run.
+ */
+public class BufferedCsvThroughputListener implements ThroughputListener {
+
+  private static final double MB = 1024 * 1024;
+  private static final int DECIMALS = 3;
+
+  private final CsvChannelWriter writer;
+
+  private long totalMessages;
+  private long totalBytes;
+  private long seconds;
+
+  /**
+   * Initialize CSV throughput listener flushed every second.
+   *
+   * @param fileName results filename
+   */
+  public BufferedCsvThroughputListener(String fileName) {
+    this(fileName, CsvFlushPolicy.every(Duration.ofSeconds(1)));
+  }
+
+  /**
+   * Initialize CSV throughput listener.
+   *
+   * @param fileName results filename
+   * @param flushPolicy when to write lines to the file
+   */
+  public BufferedCsvThroughputListener(String fileName, CsvFlushPolicy flushPolicy) {
+    this.writer = new CsvChannelWriter(fileName, flushPolicy);
+    writer
+        .column("messages/sec")
+        .column("MB/sec")
+        .column("total messages")
+        .column("MB payloads")
+        .endLine();
+  }
+
+  @Override
+  public void onReport(double messagesPerSec, double bytesPerSec) {
+    totalMessages += messagesPerSec;
+    totalBytes += bytesPerSec;
+    seconds++;
+    writeLine(messagesPerSec, bytesPerSec);
+  }
+
+  private void writeLine(double messagesPerSec, double bytesPerSec) {
+    writer
+        .column(messagesPerSec, DECIMALS)
+        .column(bytesPerSec / MB, DECIMALS)
+        .column(totalMessages)
+        .column(totalBytes / (1024 * 1024))
+        .endLine();
+  }
+
+  @Override
+  public void close() {
+    try {
+      if (seconds > 0) {
+        writeLine((double) totalMessages / seconds, (double) totalBytes / seconds);
+      }
+    } finally {
+      writer.close();
+    }
+  }
+}
@@ -21,4 +21,11 @@ public void onReport(double messagesPerSec, double bytesPerSec) {
       listener.onReport(messagesPerSec, bytesPerSec);
     }
   }
+
+  @Override
+  public void onReport(long timestamp, double messagesPerSec, double bytesPerSec) {
+    for (ThroughputListener listener : listeners) {
+      listener.onReport(timestamp, messagesPerSec, bytesPerSec);
+    }
+  }
 }
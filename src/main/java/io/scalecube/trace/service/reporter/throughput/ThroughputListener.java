@@ -10,4 +10,17 @@ public interface ThroughputListener extends AutoCloseable {
    * @param bytesPerSec since last report
    */
   void onReport(double messagesPerSec, double bytesPerSec);
+
+  /**
+   * Called for a rate report sampled on a tick of {@link
+   * io.scalecube.trace.service.reporter.ReportingClock}, instead of {@link #onReport(double,
+   * double)}.
+   *
+   * @param timestamp tick time, epoch millis.
+   * @param messagesPerSec since last report
+   * @param bytesPerSec since last report
+   */
+  default void onReport(long timestamp, double messagesPerSec, double bytesPerSec) {
+    onReport(messagesPerSec, bytesPerSec);
+  }
 }
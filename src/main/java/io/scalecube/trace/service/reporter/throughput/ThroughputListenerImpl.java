@@ -1,13 +1,20 @@
 package io.scalecube.trace.service.reporter.throughput;
 
+import io.scalecube.trace.TraceHandle;
+import io.scalecube.trace.TraceReporter;
+import io.scalecube.trace.TraceStorage;
 import io.scalecube.trace.service.reporter.AbstractPerformanceListener;
+import io.scalecube.trace.service.reporter.JvmMetricsSampler;
 import io.scalecube.trace.service.reporter.PublisherContext;
+import io.scalecube.trace.service.reporter.ReportingClock;
 import java.util.function.UnaryOperator;
 import reactor.core.Exceptions;
 
 public final class ThroughputListenerImpl extends AbstractPerformanceListener
     implements ThroughputListener, Cloneable {
 
+  private TraceHandle trace;
+
   /**
    * {@link PublisherContext} settings function.
    *
@@ -20,15 +27,60 @@ public ThroughputListenerImpl publisher(UnaryOperator<PublisherContext> op) {
     return c;
   }
 
+  /**
+   * Setter for the storage of the points, see {@link TraceStorage#mapped(java.nio.file.Path)} for
+   * long runs. Must be set before the first report.
+   *
+   * @param storage storage of the points
+   * @return new {@code ThroughputListenerImpl} instance
+   */
+  public ThroughputListenerImpl storage(TraceStorage storage) {
+    ThroughputListenerImpl c = clone();
+    c.reporter = new TraceReporter(storage);
+    return c;
+  }
+
+  /**
+   * Add JVM runtime traces (GC, allocation, JIT, threads, CPU) sampled on the ticks of the clock,
+   * see {@link JvmMetricsSampler}. They are published together with the traces of this listener.
+   * Sampling starts with the first report and stops on close.
+   *
+   * @param clock reporting clock, e.g. the clock of the reporter.
+   * @return new {@code ThroughputListenerImpl} instance
+   */
+  public ThroughputListenerImpl jvmMetrics(ReportingClock clock) {
+    ThroughputListenerImpl c = clone();
+    c.jvmMetricsClock = clock;
+    return c;
+  }
+
   @Override
   public void onReport(double messagesPerSec, double bytesPerSec) {
-    reporter.addY(publisherContext.testName(), "throughput", messagesPerSec);
+    trace(false).add(messagesPerSec);
+  }
+
+  @Override
+  public void onReport(long timestamp, double messagesPerSec, double bytesPerSec) {
+    trace(true).add(timestamp, messagesPerSec);
+  }
+
+  private TraceHandle trace(boolean timeAxis) {
+    if (trace == null) {
+      String name = publisherContext.testName();
+      trace =
+          timeAxis ? reporter.timeSeries(name, "throughput") : reporter.series(name, "throughput");
+      schedulePublishing();
+    }
+    return trace;
   }
 
   @Override
   public ThroughputListenerImpl clone() {
     try {
-      return (ThroughputListenerImpl) super.clone();
+      ThroughputListenerImpl c = (ThroughputListenerImpl) super.clone();
+      // resolved again, with the test name of the clone
+      c.trace = null;
+      return c;
     } catch (CloneNotSupportedException e) {
       throw Exceptions.propagate(e);
     }
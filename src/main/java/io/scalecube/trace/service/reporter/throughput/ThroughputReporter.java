@@ -1,8 +1,11 @@
 package io.scalecube.trace.service.reporter.throughput;
 
 import io.scalecube.trace.service.reporter.AbstractPerformanceReporter;
+import io.scalecube.trace.service.reporter.DispatchPolicy;
+import io.scalecube.trace.service.reporter.counters.SharedCounters;
 import java.util.concurrent.atomic.LongAdder;
 import org.agrona.CloseHelper;
+import org.agrona.concurrent.status.AtomicCounter;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.scheduler.Schedulers;
@@ -10,10 +13,14 @@
 /** Tracker and listener of throughput rates. */
 public class ThroughputReporter extends AbstractPerformanceReporter<ThroughputReporter> {
 
-  private final ThroughputListener listener;
+  private final ThroughputListener[] listeners;
+  private ThroughputListener listener;
+  private AsyncThroughputListener[] asyncListeners;
 
   private final LongAdder totalBytes = new LongAdder();
   private final LongAdder totalMessages = new LongAdder();
+  private AtomicCounter bytesCounter;
+  private AtomicCounter messagesCounter;
 
   private long lastTotalBytes;
   private long lastTotalMessages;
@@ -25,10 +32,11 @@ public class ThroughputReporter extends AbstractPerformanceReporter<ThroughputRe
   /**
    * Create throughput reporter.
    *
-   * @param listener throughput listener
+   * @param listeners throughput listeners
    */
-  private ThroughputReporter(ThroughputListener listener) {
-    this.listener = listener;
+  private ThroughputReporter(ThroughputListener... listeners) {
+    this.listeners = listeners;
+    this.listener = new CompositeThroughputListener(listeners);
   }
 
   /**
@@ -38,21 +46,112 @@ private ThroughputReporter(ThroughputListener listener) {
    * @return a reporter
    */
   public static ThroughputReporter create(ThroughputListener... listeners) {
-    return new ThroughputReporter(new CompositeThroughputListener(listeners));
+    return new ThroughputReporter(listeners);
+  }
+
+  /**
+   * Call every listener on its own worker thread instead of the reporting thread, see {@link
+   * AsyncThroughputListener}. The reporting thread only samples the counters and hands the rates
+   * over. Must be set before {@link #start()}.
+   *
+   * @param policy what to do when the queue of a listener is full.
+   * @param capacity capacity of the queue of every listener.
+   * @return ThroughputReporter
+   * @throws IllegalStateException if async dispatch is already set.
+   */
+  public ThroughputReporter asyncDispatch(DispatchPolicy policy, int capacity) {
+    if (asyncListeners != null) {
+      throw new IllegalStateException("Async dispatch is already set");
+    }
+    this.asyncListeners = AsyncThroughputListener.wrap(capacity, policy, listeners);
+    this.listener = new CompositeThroughputListener(asyncListeners);
+    return this;
+  }
+
+  /**
+   * Same as {@link #asyncDispatch(DispatchPolicy, int)} with {@link
+   * AsyncThroughputListener#DEFAULT_QUEUE_CAPACITY}.
+   *
+   * @param policy what to do when the queue of a listener is full.
+   * @return ThroughputReporter
+   */
+  public ThroughputReporter asyncDispatch(DispatchPolicy policy) {
+    return asyncDispatch(policy, AsyncThroughputListener.DEFAULT_QUEUE_CAPACITY);
+  }
+
+  /**
+   * Number of events dropped by all the listeners because their queues were full, see {@link
+   * #asyncDispatch(DispatchPolicy, int)}.
+   *
+   * @return dropped events, 0 without async dispatch.
+   */
+  public long droppedEvents() {
+    long dropped = 0;
+    if (asyncListeners != null) {
+      for (AsyncThroughputListener asyncListener : asyncListeners) {
+        dropped += asyncListener.droppedEvents();
+      }
+    }
+    return dropped;
   }
 
-  /** Start throughput reporter. */
+  /**
+   * Number of events dropped by a listener because its queue was full, see {@link
+   * #asyncDispatch(DispatchPolicy, int)}.
+   *
+   * @param index index of the listener given to {@link #create(ThroughputListener...)}.
+   * @return dropped events, 0 without async dispatch.
+   */
+  public long droppedEvents(int index) {
+    return asyncListeners != null ? asyncListeners[index].droppedEvents() : 0;
+  }
+
+  /**
+   * Keep the totals in shared memory counters, labeled {@code "<name> messages"} and {@code
+   * "<name> bytes"}, instead of the heap. Other processes can then sample them, see {@link
+   * io.scalecube.trace.service.reporter.counters.CountersSampler}, even if this reporter is never
+   * started. The counters are freed on close, the file stays mapped until then even if {@code
+   * counters} is closed first.
+   *
+   * @param counters shared counters file.
+   * @param name name of the counters.
+   * @return ThroughputReporter
+   */
+  public ThroughputReporter sharedCounters(SharedCounters counters, String name) {
+    this.messagesCounter = counters.newCounter(name + " messages", SharedCounters.MESSAGES_TYPE_ID);
+    this.bytesCounter = counters.newCounter(name + " bytes", SharedCounters.BYTES_TYPE_ID);
+    return this;
+  }
+
+  /** Start throughput reporter, the rates are counted from now. */
   public ThroughputReporter start() {
+    startWarmup();
     this.reportIntervalNs = reportInterval.toNanos();
+    this.lastTotalMessages =
+        messagesCounter != null ? messagesCounter.get() : totalMessages.longValue();
+    this.lastTotalBytes = bytesCounter != null ? bytesCounter.get() : totalBytes.longValue();
+    this.lastTimestamp = System.nanoTime();
+    if (clock != null) {
+      this.disposable = registerOnClock(this::run);
+      return this;
+    }
     this.disposable =
         Flux.interval(reportDelay, reportInterval, Schedulers.single())
-            .subscribe(i -> this.run(), Throwable::printStackTrace);
+            .subscribe(i -> this.run(NO_TIMESTAMP), Throwable::printStackTrace);
     return this;
   }
 
-  private void run() {
-    long currentTotalMessages = totalMessages.longValue();
-    long currentTotalBytes = totalBytes.longValue();
+  @Override
+  public synchronized void report() {
+    if (warmupFinished) {
+      run(clock != null ? System.currentTimeMillis() : NO_TIMESTAMP);
+    }
+  }
+
+  private synchronized void run(long timestamp) {
+    long currentTotalMessages =
+        messagesCounter != null ? messagesCounter.get() : totalMessages.longValue();
+    long currentTotalBytes = bytesCounter != null ? bytesCounter.get() : totalBytes.longValue();
     long currentTimestamp = System.nanoTime();
 
     long timeSpanNs = currentTimestamp - lastTimestamp;
@@ -66,10 +165,12 @@ private void run() {
     lastTotalMessages = currentTotalMessages;
     lastTimestamp = currentTimestamp;
 
-    if (warmupFinished) {
+    if (!warmupFinished) {
+      warmupFinished = finishWarmup(messagesPerSec);
+    } else if (timestamp == NO_TIMESTAMP) {
       listener.onReport(messagesPerSec, bytesPerSec);
     } else {
-      warmupFinished = true;
+      listener.onReport(timestamp, messagesPerSec, bytesPerSec);
     }
   }
 
@@ -80,13 +181,22 @@ private void run() {
    * @param bytes received, sent, etc.
    */
   public void onMessage(final long messages, final long bytes) {
+    if (messagesCounter != null) {
+      bytesCounter.getAndAdd(bytes);
+      messagesCounter.getAndAdd(messages);
+      return;
+    }
     totalBytes.add(bytes);
     totalMessages.add(messages);
   }
 
   @Override
   public void close() {
-    disposable.dispose();
+    if (disposable != null) {
+      disposable.dispose();
+    }
+    CloseHelper.quietClose(messagesCounter);
+    CloseHelper.quietClose(bytesCounter);
     CloseHelper.quietClose(listener);
   }
 }
@@ -0,0 +1,96 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.HttpServer;
+import io.scalecube.trace.TraceReporter;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
+
+class AsyncPublisherTest {
+
+  private final AtomicInteger failures = new AtomicInteger();
+  private final AtomicInteger failureCode = new AtomicInteger(503);
+  private final AtomicInteger requests = new AtomicInteger();
+  private HttpServer server;
+  private AsyncPublisher publisher;
+  private PublisherContext context;
+
+  @BeforeEach
+  void start() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/traces",
+        exchange -> {
+          requests.incrementAndGet();
+          int responseCode = failures.getAndDecrement() > 0 ? failureCode.get() : 200;
+          exchange.sendResponseHeaders(responseCode, -1);
+          exchange.close();
+        });
+    server.start();
+    publisher = new AsyncPublisher(2, 4);
+    context =
+        new PublisherContext()
+            .traceReportUrl("http://localhost:" + server.getAddress().getPort() + "/traces")
+            .timeout(Duration.ofSeconds(1))
+            .retryBackoff(Duration.ofMillis(10));
+  }
+
+  @AfterEach
+  void stop() {
+    publisher.close();
+    server.stop(0);
+  }
+
+  @Test
+  void testRetry() {
+    failures.set(2);
+    try (TraceReporter reporter = new TraceReporter()) {
+      reporter.addY("latency-1", "latency", 42);
+
+      PublishResult result = publisher.publish(context, reporter.traces()).block();
+
+      assertEquals(200, result.responseCode());
+      assertEquals(3, result.attempts());
+      assertEquals(3, requests.get());
+    }
+  }
+
+  @Test
+  void testRetriesExhausted() {
+    failures.set(Integer.MAX_VALUE);
+    try (TraceReporter reporter = new TraceReporter()) {
+      reporter.addY("latency-1", "latency", 42);
+
+      RuntimeException error =
+          assertThrows(
+              RuntimeException.class,
+              () -> publisher.publish(context.retries(1), reporter.traces()).block());
+      assertEquals(503, ((PublishException) Exceptions.unwrap(error)).responseCode());
+      assertEquals(2, requests.get());
+    }
+  }
+
+  @Test
+  void testClientErrorIsNotRetried() {
+    failures.set(Integer.MAX_VALUE);
+    failureCode.set(400);
+    try (TraceReporter reporter = new TraceReporter()) {
+      reporter.addY("latency-1", "latency", 42);
+
+      RuntimeException error =
+          assertThrows(
+              RuntimeException.class,
+              () -> publisher.publish(context, reporter.traces()).block());
+      assertEquals(400, ((PublishException) Exceptions.unwrap(error)).responseCode());
+      assertEquals(1, requests.get());
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.scalecube.trace.service.reporter.latency.BufferedCsvLatencyListener;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CsvChannelWriterTest {
+
+  @Test
+  void testColumns(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("test.csv");
+    try (CsvChannelWriter writer =
+        new CsvChannelWriter(file.toString(), CsvFlushPolicy.everyLines(2))) {
+      writer.column("a,b").column("say \"hi\"").column("plain").endLine();
+      writer.column(-42).column(1.5, 3).column(-0.0004, 3).column(2.9996, 3).endLine();
+      assertEquals(2, Files.readAllLines(file).size());
+      writer.column(Double.NaN, 2).column(123456.789, 0).endLine();
+      assertEquals(2, Files.readAllLines(file).size());
+    }
+
+    assertEquals(
+        "\"a,b\",\"say \"\"hi\"\"\",plain\n"
+            + "-42,1.500,0.000,3.000\n"
+            + "NaN,123457\n",
+        new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void testLatencyListener(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("latency.csv");
+    Histogram histogram = new Histogram(3);
+    for (int i = 1; i <= 1000; i++) {
+      histogram.recordValue(i * 1000L);
+    }
+    try (BufferedCsvLatencyListener listener =
+        new BufferedCsvLatencyListener(
+            file.toString(), CsvFlushPolicy.every(Duration.ofHours(1)), 50, 99.9)) {
+      listener.onReport(histogram);
+      listener.onReport(histogram);
+      assertEquals(0, Files.size(file));
+    }
+
+    assertEquals(
+        "p50,p99.9\n500.223,999.423\n500.223,999.423\n",
+        new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+  }
+}
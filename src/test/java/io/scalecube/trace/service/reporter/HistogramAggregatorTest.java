@@ -0,0 +1,218 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.trace.service.reporter.aggregation.HistogramAggregator;
+import io.scalecube.trace.service.reporter.aggregation.ShippingLatencyListener;
+import io.scalecube.trace.service.reporter.aggregation.ShippingThroughputListener;
+import io.scalecube.trace.service.reporter.latency.LatencyListener;
+import io.scalecube.trace.service.reporter.throughput.ThroughputListener;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+class HistogramAggregatorTest {
+
+  private static final int NODES = 3;
+  private static final long[] TICKS = {1_000, 2_000};
+
+  @Test
+  void testAggregateProcesses() throws Exception {
+    Map<Long, Histogram> histograms = new ConcurrentHashMap<>();
+    Map<Long, Double> rates = new ConcurrentHashMap<>();
+    HistogramAggregator aggregator =
+        new HistogramAggregator()
+            .expectedNodes(NODES)
+            .lateness(Duration.ofSeconds(30))
+            .latencyListener(series -> latencyListener(histograms))
+            .throughputListener(series -> throughputListener(rates))
+            .start();
+    try {
+      int port = aggregator.address().getPort();
+      List<Process> processes = new ArrayList<>();
+      for (int node = 0; node < NODES; node++) {
+        processes.add(
+            new ProcessBuilder(
+                    System.getProperty("java.home") + File.separator + "bin" + File.separator
+                        + "java",
+                    "-cp",
+                    System.getProperty("java.class.path"),
+                    Node.class.getName(),
+                    String.valueOf(port),
+                    String.valueOf(node))
+                .inheritIO()
+                .start());
+      }
+      for (Process process : processes) {
+        assertTrue(process.waitFor(30, TimeUnit.SECONDS));
+        assertEquals(0, process.exitValue());
+      }
+
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (histograms.size() < TICKS.length && System.nanoTime() < deadline) {
+        TimeUnit.MILLISECONDS.sleep(10);
+      }
+    } finally {
+      aggregator.close();
+    }
+
+    for (long tick : TICKS) {
+      Histogram histogram = histograms.get(tick);
+      assertEquals(100 * NODES, histogram.getTotalCount());
+      // p99 of the merged histogram is the slowest node, averaged p99s would be 2000
+      assertTrue(histogram.valuesAreEquivalent(3000, histogram.getValueAtPercentile(99)));
+      assertEquals(1000 * NODES, rates.get(tick));
+    }
+  }
+
+  @Test
+  void testMergeHistogramsOfDifferentRanges() throws Exception {
+    Map<Long, Histogram> histograms = new ConcurrentHashMap<>();
+    HistogramAggregator aggregator =
+        new HistogramAggregator()
+            .expectedNodes(2)
+            .latencyListener(series -> latencyListener(histograms))
+            .start();
+    try (ShippingLatencyListener narrow =
+            new ShippingLatencyListener(aggregator.address(), "request");
+        ShippingLatencyListener wide =
+            new ShippingLatencyListener(aggregator.address(), "request")) {
+      Histogram small = new Histogram(3);
+      small.recordValue(1000);
+      narrow.onReport(TICKS[0], small);
+      // decoded after the narrow one, merged into it
+      TimeUnit.MILLISECONDS.sleep(100);
+      Histogram large = new Histogram(3);
+      large.recordValue(TimeUnit.SECONDS.toNanos(100));
+      wide.onReport(TICKS[0], large);
+
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (!histograms.containsKey(TICKS[0]) && System.nanoTime() < deadline) {
+        TimeUnit.MILLISECONDS.sleep(10);
+      }
+    } finally {
+      aggregator.close();
+    }
+    Histogram histogram = histograms.get(TICKS[0]);
+    assertEquals(2, histogram.getTotalCount());
+    long max = TimeUnit.SECONDS.toNanos(100);
+    assertTrue(histogram.valuesAreEquivalent(max, histogram.getMaxValue()));
+  }
+
+  @Test
+  void testInvalidFrameLength() throws Exception {
+    try (HistogramAggregator aggregator = new HistogramAggregator().start();
+        SocketChannel channel = SocketChannel.open(aggregator.address())) {
+      ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES);
+      frame.putInt(0, -1);
+      channel.write(frame);
+      // the aggregator closes the connection
+      assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+    }
+  }
+
+  @Test
+  void testUnreachableAggregator() throws Exception {
+    InetSocketAddress address;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      address = new InetSocketAddress("localhost", socket.getLocalPort());
+    }
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    PrintStream systemErr = System.err;
+    System.setErr(new PrintStream(err, true));
+    try (ShippingThroughputListener listener =
+        new ShippingThroughputListener(address, "request")) {
+      for (long tick = 1; tick <= 10; tick++) {
+        listener.onReport(tick, 1000, 100_000);
+      }
+      assertEquals(10, listener.droppedReports());
+    } finally {
+      System.setErr(systemErr);
+    }
+    // the reports after the first failure are dropped without connecting, nor logging
+    assertEquals(1, err.toString().split("\\R").length, err.toString());
+  }
+
+  private static LatencyListener latencyListener(Map<Long, Histogram> histograms) {
+    return new LatencyListener() {
+      @Override
+      public void onReport(Histogram intervalHistogram) {
+        throw new AssertionError("timestamp expected");
+      }
+
+      @Override
+      public void onReport(long timestamp, Histogram intervalHistogram) {
+        histograms.put(timestamp, intervalHistogram);
+      }
+
+      @Override
+      public void onTerminate(Histogram accumulatedHistogram) {
+        // nothing to do here
+      }
+
+      @Override
+      public void close() {
+        // nothing to do here
+      }
+    };
+  }
+
+  private static ThroughputListener throughputListener(Map<Long, Double> rates) {
+    return new ThroughputListener() {
+      @Override
+      public void onReport(double messagesPerSec, double bytesPerSec) {
+        throw new AssertionError("timestamp expected");
+      }
+
+      @Override
+      public void onReport(long timestamp, double messagesPerSec, double bytesPerSec) {
+        rates.put(timestamp, messagesPerSec);
+      }
+
+      @Override
+      public void close() {
+        // nothing to do here
+      }
+    };
+  }
+
+  /** Load generating process, reports the same ticks as the other nodes. */
+  public static final class Node {
+
+    /**
+     * Ship two ticks to the aggregator.
+     *
+     * @param args aggregator port and node index
+     */
+    public static void main(String[] args) {
+      InetSocketAddress aggregator = new InetSocketAddress("localhost", Integer.parseInt(args[0]));
+      int node = Integer.parseInt(args[1]);
+      try (ShippingLatencyListener latency = new ShippingLatencyListener(aggregator, "request");
+          ShippingThroughputListener throughput =
+              new ShippingThroughputListener(aggregator, "request")) {
+        for (long tick : TICKS) {
+          Histogram histogram = new Histogram(3);
+          histogram.recordValueWithCount((node + 1) * 1000L, 100);
+          latency.onReport(tick, histogram);
+          throughput.onReport(tick, 1000, 100_000);
+        }
+        if (latency.droppedReports() + throughput.droppedReports() > 0) {
+          System.exit(1);
+        }
+      }
+    }
+  }
+}
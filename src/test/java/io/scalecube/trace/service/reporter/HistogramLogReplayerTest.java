@@ -0,0 +1,76 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.scalecube.trace.service.reporter.latency.HistogramLogReplayer;
+import io.scalecube.trace.service.reporter.latency.HistogramLogReportingLatencyListener;
+import io.scalecube.trace.service.reporter.latency.LatencyListener;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+class HistogramLogReplayerTest {
+
+  @Test
+  void testReplay() throws Exception {
+    File file = File.createTempFile("latency", ".hlog");
+    file.deleteOnExit();
+
+    try (HistogramLogReportingLatencyListener listener =
+        new HistogramLogReportingLatencyListener(file.getPath())) {
+      long now = System.currentTimeMillis();
+      listener.onReport(histogram(now, 100, 1_000));
+      Histogram corrected = histogram(now, 100, 1_000, 2_000);
+      listener.onCorrectedReport(corrected);
+      // other listeners get the same histogram
+      assertNull(corrected.getTag());
+      listener.onReport(histogram(now + 1000, 200, 3_000, 4_000));
+    }
+
+    List<Histogram> reports = new ArrayList<>();
+    List<Histogram> correctedReports = new ArrayList<>();
+    List<Histogram> accumulated = new ArrayList<>();
+    HistogramLogReplayer.replay(
+        file.getPath(),
+        new LatencyListener() {
+          @Override
+          public void onReport(Histogram intervalHistogram) {
+            reports.add(intervalHistogram);
+          }
+
+          @Override
+          public void onCorrectedReport(Histogram correctedIntervalHistogram) {
+            correctedReports.add(correctedIntervalHistogram);
+          }
+
+          @Override
+          public void onTerminate(Histogram accumulatedHistogram) {
+            accumulated.add(accumulatedHistogram);
+          }
+
+          @Override
+          public void close() {
+            // no-op
+          }
+        });
+
+    assertEquals(2, reports.size());
+    assertEquals(1, correctedReports.size());
+    assertEquals(2, correctedReports.get(0).getTotalCount());
+    assertEquals(3, accumulated.get(0).getTotalCount());
+    assertEquals(4_000, accumulated.get(0).getMaxValue(), 10);
+  }
+
+  private static Histogram histogram(long startTime, long length, long... values) {
+    Histogram histogram = new Histogram(3);
+    for (long value : values) {
+      histogram.recordValue(value);
+    }
+    histogram.setStartTimeStamp(startTime);
+    histogram.setEndTimeStamp(startTime + length);
+    return histogram;
+  }
+}
@@ -0,0 +1,108 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.trace.NumericTraceData;
+import io.scalecube.trace.TraceReporter;
+import io.scalecube.trace.service.reporter.jfr.JfrEventSource;
+import io.scalecube.trace.service.reporter.jfr.JfrLatencyListener;
+import io.scalecube.trace.service.reporter.jfr.JfrThroughputListener;
+import io.scalecube.trace.service.reporter.jfr.LatencyIntervalEvent;
+import io.scalecube.trace.service.reporter.jfr.ThroughputIntervalEvent;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JfrTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void testIntervalEvents() throws Exception {
+    Path file = directory.resolve("intervals.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(LatencyIntervalEvent.NAME);
+      recording.enable(ThroughputIntervalEvent.NAME);
+      recording.start();
+
+      Histogram histogram = new Histogram(TimeUnit.SECONDS.toNanos(10), 3);
+      for (int i = 1; i <= 1000; i++) {
+        histogram.recordValue(i * 1000L);
+      }
+      try (JfrLatencyListener latency = new JfrLatencyListener("jfr-test");
+          JfrThroughputListener throughput = new JfrThroughputListener("jfr-test")) {
+        latency.onReport(histogram);
+        throughput.onReport(100, 12800);
+      }
+
+      recording.stop();
+      recording.dump(file);
+    }
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    List<RecordedEvent> latencyEvents = ofType(events, LatencyIntervalEvent.NAME);
+    assertEquals(1, latencyEvents.size());
+    RecordedEvent latency = latencyEvents.get(0);
+    assertEquals("jfr-test", latency.getString("test"));
+    assertEquals(1000, latency.getLong("count"));
+    assertEquals(500_000, latency.getDuration("p50").toNanos(), 500);
+    assertEquals(990_000, latency.getDuration("p99").toNanos(), 1000);
+
+    List<RecordedEvent> throughputEvents = ofType(events, ThroughputIntervalEvent.NAME);
+    assertEquals(1, throughputEvents.size());
+    assertEquals(100, throughputEvents.get(0).getDouble("messagesPerSec"));
+    assertEquals(12800, throughputEvents.get(0).getDouble("bytesPerSec"));
+  }
+
+  @Test
+  void testEventSource() throws Exception {
+    try (ReportingClock clock = new ReportingClock(Duration.ofMillis(100));
+        TraceReporter reporter = new TraceReporter()) {
+      NumericTraceData gc = reporter.timeSeries("jdk.GarbageCollection (ms)", "jfr").trace();
+      NumericTraceData safepoints = reporter.timeSeries("jdk.SafepointBegin (ms)", "jfr").trace();
+      NumericTraceData compilations = reporter.timeSeries("jdk.Compilation (ms)", "jfr").trace();
+      JfrEventSource source = new JfrEventSource(reporter, clock);
+      try {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        long checksum = 0;
+        while ((gc.size() < 2 || safepoints.size() < 1 || compilations.size() < 1)
+            && System.nanoTime() < deadline) {
+          // collections stop the world at safepoints, fresh lambdas get compiled
+          System.gc();
+          checksum += compute(checksum);
+          Thread.sleep(50);
+        }
+      } finally {
+        source.close();
+      }
+      assertTrue(gc.size() >= 2);
+      assertTrue(safepoints.size() >= 1);
+      assertTrue(compilations.size() >= 1);
+      // points are at the end time of the events, in epoch millis
+      assertTrue(Math.abs(gc.xvalue(0) - System.currentTimeMillis()) < 60_000);
+    }
+  }
+
+  private static long compute(long seed) {
+    long result = seed;
+    for (int i = 0; i < 100_000; i++) {
+      result = result * 31 + (i ^ (result >>> 7));
+    }
+    return result;
+  }
+
+  private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+    return events.stream()
+        .filter(event -> event.getEventType().getName().equals(name))
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,74 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.trace.NumericTraceData;
+import io.scalecube.trace.TraceReporter;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class JvmMetricsSamplerTest {
+
+  @Test
+  void testSampling() throws Exception {
+    try (ReportingClock clock = new ReportingClock(Duration.ofMillis(20));
+        TraceReporter reporter = new TraceReporter()) {
+      JvmMetricsSampler sampler = new JvmMetricsSampler(reporter, clock);
+      try {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        byte[][] garbage = new byte[64][];
+        int i = 0;
+        while (trace(reporter, "gc count", "gc").size() < 5 && System.nanoTime() < deadline) {
+          garbage[i++ % garbage.length] = new byte[64 * 1024];
+          if (i % 1000 == 0) {
+            System.gc();
+            Thread.sleep(5);
+          }
+        }
+      } finally {
+        sampler.close();
+      }
+
+      assertTrue(trace(reporter, "gc count", "gc").size() >= 5);
+      assertTrue(sum(trace(reporter, "gc count", "gc")) >= 1);
+      assertTrue(sum(trace(reporter, "heap used (MB)", "memory")) > 0);
+      assertTrue(sum(trace(reporter, "allocation rate (MB/s)", "memory")) > 0);
+      assertTrue(trace(reporter, "threads", "threads").yvalue(0) > 0);
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      Publisher.serialize(new PublisherContext(), reporter.traces(), out);
+      String json = new String(out.toByteArray(), StandardCharsets.UTF_8);
+      assertTrue(json.contains("\"group\":\"gc\""), json);
+      assertTrue(json.contains("\"group\":\"memory\""), json);
+    }
+  }
+
+  @Test
+  void testConcurrentCyclesAreNotPauses() {
+    assertTrue(JvmMetricsSampler.isConcurrent("ZGC Cycles"));
+    assertTrue(JvmMetricsSampler.isConcurrent("ZGC Major Cycles"));
+    assertTrue(JvmMetricsSampler.isConcurrent("Shenandoah Cycles"));
+    assertTrue(JvmMetricsSampler.isConcurrent("G1 Concurrent GC"));
+    assertTrue(JvmMetricsSampler.isConcurrent("ConcurrentMarkSweep"));
+    assertFalse(JvmMetricsSampler.isConcurrent("ZGC Pauses"));
+    assertFalse(JvmMetricsSampler.isConcurrent("Shenandoah Pauses"));
+    assertFalse(JvmMetricsSampler.isConcurrent("G1 Young Generation"));
+    assertFalse(JvmMetricsSampler.isConcurrent("G1 Old Generation"));
+    assertFalse(JvmMetricsSampler.isConcurrent("PS MarkSweep"));
+  }
+
+  private static NumericTraceData trace(TraceReporter reporter, String name, String group) {
+    return reporter.timeSeries(name, group).trace();
+  }
+
+  private static double sum(NumericTraceData trace) {
+    double sum = 0;
+    for (int i = 0; i < trace.size(); i++) {
+      sum += trace.yvalue(i);
+    }
+    return sum;
+  }
+}
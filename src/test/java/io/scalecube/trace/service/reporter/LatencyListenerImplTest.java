@@ -0,0 +1,62 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import io.scalecube.trace.service.reporter.latency.LatencyListenerImpl;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+class LatencyListenerImplTest {
+
+  @Test
+  void testPercentilesAfterReport() throws Exception {
+    BlockingQueue<String> requests = new LinkedBlockingQueue<>();
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/traces",
+        exchange -> {
+          ByteArrayOutputStream out = new ByteArrayOutputStream();
+          try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[1024];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+              out.write(buffer, 0, n);
+            }
+          }
+          requests.add(new String(out.toByteArray(), StandardCharsets.UTF_8));
+          exchange.sendResponseHeaders(200, -1);
+          exchange.close();
+        });
+    server.start();
+    try {
+      String url = "http://localhost:" + server.getAddress().getPort() + "/traces";
+      Histogram histogram = new Histogram(3);
+      histogram.recordValue(1000);
+      LatencyListenerImpl listener =
+          new LatencyListenerImpl()
+              .publisher(c -> c.traceReportUrl(url).testName("test"))
+              .percentiles(50d);
+      listener.onReport(histogram);
+      // the clone has more percentiles and another name than the traces resolved so far
+      LatencyListenerImpl other =
+          listener.percentiles(50d, 99d).publisher(c -> c.testName("other"));
+      other.onReport(histogram);
+      listener.close();
+
+      String request = requests.poll(1, TimeUnit.SECONDS);
+      assertTrue(request.contains("\"name\":\"[p50.0] test\""), request);
+      assertTrue(request.contains("\"name\":\"[p50.0] other\""), request);
+      assertTrue(request.contains("\"name\":\"[p99.0] other\""), request);
+    } finally {
+      server.stop(0);
+    }
+  }
+}
@@ -1,16 +1,100 @@
 package io.scalecube.trace.service.reporter;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import io.scalecube.trace.EnviromentVariables;
+import io.scalecube.trace.service.reporter.latency.LatencyListener;
 import io.scalecube.trace.service.reporter.latency.LatencyListenerImpl;
 import io.scalecube.trace.service.reporter.latency.LatencyReporter;
 import io.scalecube.trace.service.reporter.throughput.ThroughputListenerImpl;
 import io.scalecube.trace.service.reporter.throughput.ThroughputReporter;
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.Histogram;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 public class LatencyReporterTest {
 
+  @Test
+  void testCorrectedReportBackfillsStall() throws Exception {
+    long expectedInterval = TimeUnit.MILLISECONDS.toNanos(1);
+    long stall = TimeUnit.MILLISECONDS.toNanos(10);
+    AtomicLong reports = new AtomicLong();
+    Histogram reported = new Histogram(3);
+    Histogram corrected = new Histogram(3);
+    LatencyListener listener =
+        new LatencyListener() {
+          @Override
+          public void onReport(Histogram intervalHistogram) {
+            synchronized (reported) {
+              reported.add(intervalHistogram);
+            }
+            reports.incrementAndGet();
+          }
+
+          @Override
+          public void onCorrectedReport(Histogram correctedHistogram) {
+            synchronized (corrected) {
+              corrected.add(correctedHistogram);
+            }
+          }
+
+          @Override
+          public void onTerminate(Histogram accumulatedHistogram) {
+            // not needed
+          }
+
+          @Override
+          public void close() {
+            // no resources
+          }
+        };
+
+    try (ReportingClock clock = new ReportingClock(Duration.ofMillis(20));
+        LatencyReporter reporter =
+            LatencyReporter.create(listener)
+                .expectedInterval(Duration.ofNanos(expectedInterval))
+                .clock(clock)) {
+      reporter.start();
+      // the first tick finishes the warmup and discards the samples recorded before it
+      long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+      while (reports.get() == 0 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+
+      // 90 samples on time and one stalled for 10 expected intervals
+      for (int i = 0; i < 90; i++) {
+        reporter.onDiff(TimeUnit.MICROSECONDS.toNanos(100));
+      }
+      reporter.onDiff(stall);
+
+      while (totalCount(corrected) < 100 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+    }
+
+    synchronized (reported) {
+      assertEquals(91, reported.getTotalCount());
+      assertTrue(reported.getValueAtPercentile(95) < expectedInterval);
+    }
+    synchronized (corrected) {
+      // the stall back-fills the samples of 9, 8, ..., 1 ms which were never sent
+      assertEquals(100, corrected.getTotalCount());
+      assertEquals(1, corrected.getCountAtValue(TimeUnit.MILLISECONDS.toNanos(5)));
+      assertTrue(corrected.getValueAtPercentile(95) >= TimeUnit.MILLISECONDS.toNanos(4));
+      assertTrue(corrected.getMaxValue() >= stall);
+    }
+  }
+
+  private static long totalCount(Histogram histogram) {
+    synchronized (histogram) {
+      return histogram.getTotalCount();
+    }
+  }
+
   @Disabled
   @Test
   void testPerformance() throws Exception {
@@ -0,0 +1,210 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.trace.service.reporter.latency.AsyncLatencyListener;
+import io.scalecube.trace.service.reporter.latency.LatencyListener;
+import io.scalecube.trace.service.reporter.throughput.AsyncThroughputListener;
+import io.scalecube.trace.service.reporter.throughput.ThroughputListener;
+import io.scalecube.trace.service.reporter.throughput.ThroughputReporter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+class ListenerDispatcherTest {
+
+  @Test
+  void testDrop() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    List<Double> reports = new CopyOnWriteArrayList<>();
+    AsyncThroughputListener listener =
+        new AsyncThroughputListener(slowListener(release, reports), 2, DispatchPolicy.DROP);
+    try {
+      for (int i = 0; i < 10; i++) {
+        listener.onReport(i, 0);
+      }
+      assertTrue(listener.droppedEvents() > 0);
+    } finally {
+      release.countDown();
+      listener.close();
+    }
+
+    assertEquals(10, reports.size() + listener.droppedEvents());
+    assertEquals(0d, reports.get(0));
+  }
+
+  @Test
+  void testBlock() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    List<Double> reports = new CopyOnWriteArrayList<>();
+    AsyncThroughputListener listener =
+        new AsyncThroughputListener(slowListener(release, reports), 2, DispatchPolicy.BLOCK);
+    Thread releaser =
+        new Thread(
+            () -> {
+              try {
+                TimeUnit.MILLISECONDS.sleep(100);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              release.countDown();
+            });
+    releaser.start();
+    long start = System.nanoTime();
+    for (int i = 0; i < 10; i++) {
+      listener.onReport(i, 0);
+    }
+    // the queue could take the events only after the listener was released
+    assertEquals(0, release.getCount());
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    listener.close();
+    releaser.join();
+
+    assertEquals(0, listener.droppedEvents());
+    assertEquals(10, reports.size());
+    for (int i = 0; i < 10; i++) {
+      assertEquals((double) i, reports.get(i));
+    }
+  }
+
+  @Test
+  void testReporterDropCounts() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    List<Double> reports = new CopyOnWriteArrayList<>();
+    ThroughputReporter reporter;
+    try (ReportingClock clock = new ReportingClock(Duration.ofMillis(10))) {
+      reporter =
+          ThroughputReporter.create(slowListener(release, reports))
+              .asyncDispatch(DispatchPolicy.DROP, 2)
+              .clock(clock);
+      try {
+        assertThrows(
+            IllegalStateException.class, () -> reporter.asyncDispatch(DispatchPolicy.DROP, 2));
+        reporter.start();
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (reporter.droppedEvents() == 0 && System.nanoTime() < deadline) {
+          Thread.sleep(10);
+        }
+      } finally {
+        release.countDown();
+        reporter.close();
+      }
+    }
+
+    // nothing is dispatched after close
+    assertTrue(reporter.droppedEvents() > 0);
+    assertEquals(reporter.droppedEvents(), reporter.droppedEvents(0));
+  }
+
+  @Test
+  void testEventsRacingWithCloseAreCounted() throws Exception {
+    ListenerDispatcher dispatcher = new ListenerDispatcher("test", 1024, DispatchPolicy.DROP);
+    LongAdder executed = new LongAdder();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread thread =
+          new Thread(
+              () -> {
+                for (int j = 0; j < 100_000; j++) {
+                  dispatcher.dispatch(executed::increment);
+                }
+              });
+      thread.start();
+      threads.add(thread);
+    }
+    TimeUnit.MILLISECONDS.sleep(10);
+    dispatcher.close();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(4 * 100_000, executed.sum() + dispatcher.droppedEvents());
+  }
+
+  @Test
+  void testTerminateIsNotDropped() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<Histogram> terminated = new CopyOnWriteArrayList<>();
+    AsyncLatencyListener listener =
+        new AsyncLatencyListener(
+            new LatencyListener() {
+              @Override
+              public void onReport(Histogram intervalHistogram) {
+                started.countDown();
+                try {
+                  release.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              }
+
+              @Override
+              public void onTerminate(Histogram accumulatedHistogram) {
+                terminated.add(accumulatedHistogram);
+              }
+
+              @Override
+              public void close() {
+                // nothing to do here
+              }
+            },
+            2,
+            DispatchPolicy.DROP);
+    Histogram histogram = new Histogram(3);
+    Thread releaser =
+        new Thread(
+            () -> {
+              try {
+                TimeUnit.MILLISECONDS.sleep(100);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              release.countDown();
+            });
+    try {
+      listener.onReport(histogram);
+      started.await();
+      // the worker is blocked, fill the queue until an event is dropped
+      while (listener.droppedEvents() == 0) {
+        listener.onReport(histogram);
+      }
+      releaser.start();
+      // waits for room in the queue
+      listener.onTerminate(histogram);
+    } finally {
+      release.countDown();
+      listener.close();
+      releaser.join();
+    }
+
+    assertEquals(1, terminated.size());
+  }
+
+  private static ThroughputListener slowListener(CountDownLatch release, List<Double> reports) {
+    return new ThroughputListener() {
+      @Override
+      public void onReport(double messagesPerSec, double bytesPerSec) {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        reports.add(messagesPerSec);
+      }
+
+      @Override
+      public void close() {
+        // nothing to do here
+      }
+    };
+  }
+}
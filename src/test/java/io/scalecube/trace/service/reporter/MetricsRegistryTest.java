@@ -0,0 +1,72 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.trace.service.reporter.metrics.LatencyMetric;
+import io.scalecube.trace.service.reporter.metrics.MetricId;
+import io.scalecube.trace.service.reporter.metrics.MetricsListener;
+import io.scalecube.trace.service.reporter.metrics.MetricsRegistry;
+import io.scalecube.trace.service.reporter.metrics.ThroughputMetric;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+class MetricsRegistryTest {
+
+  @Test
+  void testSeries() throws Exception {
+    final int shards = 100;
+    Map<String, Long> latencies = new ConcurrentHashMap<>();
+    Map<String, Double> throughputs = new ConcurrentHashMap<>();
+    MetricsListener listener =
+        new MetricsListener() {
+          @Override
+          public void onLatency(long timestamp, MetricId id, Histogram intervalHistogram) {
+            latencies.merge(id.toString(), intervalHistogram.getTotalCount(), Long::sum);
+          }
+
+          @Override
+          public void onThroughput(
+              long timestamp, MetricId id, double messagesPerSec, double bytesPerSec) {
+            throughputs.put(id.toString(), messagesPerSec);
+          }
+        };
+
+    try (ReportingClock clock = new ReportingClock(Duration.ofMillis(50));
+        MetricsRegistry registry = new MetricsRegistry(clock, listener, shards + 1, 2)) {
+      for (int shard = 0; shard < shards; shard++) {
+        LatencyMetric metric =
+            registry.latency("request", "endpoint", "/orders", "shard", String.valueOf(shard));
+        assertSame(
+            metric,
+            registry.latency("request", "endpoint", "/orders", "shard", String.valueOf(shard)));
+        metric.record(1000 + shard);
+      }
+      ThroughputMetric throughput = registry.throughput("request", "endpoint", "/orders");
+      throughput.onMessage(10, 100);
+      assertEquals(shards + 1, registry.size());
+
+      // cardinality cap
+      LatencyMetric overflow = registry.latency("request", "endpoint", "/users");
+      assertEquals(MetricsRegistry.OVERFLOW_NAME, overflow.id().name());
+      overflow.record(1);
+      assertEquals(1, registry.rejectedSeries());
+      assertEquals(shards + 1, registry.size());
+
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (latencies.size() < shards + 1 && System.nanoTime() < deadline) {
+        TimeUnit.MILLISECONDS.sleep(10);
+      }
+    }
+
+    assertEquals(shards + 1, latencies.size(), latencies.toString());
+    assertEquals(1L, latencies.get("request{endpoint=/orders,shard=42}"));
+    assertEquals(1L, latencies.get(MetricsRegistry.OVERFLOW_NAME));
+    assertTrue(throughputs.get("request{endpoint=/orders}") > 0);
+  }
+}
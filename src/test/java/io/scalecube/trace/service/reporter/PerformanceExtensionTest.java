@@ -0,0 +1,141 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.scalecube.trace.junit.PerformanceTest;
+import io.scalecube.trace.service.reporter.latency.LatencyReporter;
+import io.scalecube.trace.service.reporter.throughput.ThroughputReporter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Nested;
+
+class PerformanceExtensionTest {
+
+  // recorded by warmup invocations only, scaled to micros by the listener
+  private static final long WARMUP_LATENCY = TimeUnit.SECONDS.toNanos(5);
+
+  private static final List<LatencyReporter> measured = new ArrayList<>();
+  private static final List<LatencyReporter> other = new ArrayList<>();
+  private static final AtomicInteger publishedInvocations = new AtomicInteger();
+  private static final List<JsonNode> published = new CopyOnWriteArrayList<>();
+  private static HttpServer server;
+
+  @BeforeAll
+  static void startServer() throws IOException {
+    ObjectMapper mapper = new ObjectMapper();
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/traces",
+        exchange -> {
+          try (InputStream in = exchange.getRequestBody()) {
+            published.add(mapper.readTree(in));
+          }
+          exchange.sendResponseHeaders(200, -1);
+          exchange.close();
+        });
+    server.start();
+    // read when the listeners of a test class are created and closed
+    System.setProperty(
+        "trace.report.url", "http://localhost:" + server.getAddress().getPort() + "/traces");
+    System.setProperty("trace.report", "true");
+  }
+
+  @AfterAll
+  static void verify() {
+    System.clearProperty("trace.report");
+    System.clearProperty("trace.report.url");
+    server.stop(0);
+
+    assertEquals(5, measured.size());
+    for (LatencyReporter reporter : measured) {
+      assertSame(measured.get(0), reporter);
+    }
+    assertEquals(1, other.size());
+    assertNotSame(measured.get(0), other.get(0));
+
+    // nested classes are closed before, the last partial intervals are published too
+    assertPoints("[p99.0] Measured.measured");
+    assertPoints("Measured.measured");
+    assertPoints("[p99.0] other");
+
+    // the measured intervals only
+    JsonNode p99 = trace("[p99.0] published");
+    assertNotNull(p99, published.toString());
+    JsonNode values = p99.get("y");
+    assertTrue(values.size() > 0, p99.toString());
+    long warmupMicros = TimeUnit.NANOSECONDS.toMicros(WARMUP_LATENCY);
+    for (JsonNode value : values) {
+      assertTrue(value.asDouble() < warmupMicros, p99.toString());
+    }
+  }
+
+  private static void assertPoints(String name) {
+    JsonNode trace = trace(name);
+    assertNotNull(trace, published.toString());
+    assertTrue(trace.get("y").size() > 0, trace.toString());
+  }
+
+  private static JsonNode trace(String name) {
+    for (JsonNode request : published) {
+      for (JsonNode trace : request.get("traces")) {
+        if (name.equals(trace.path("name").asText())) {
+          return trace;
+        }
+      }
+    }
+    return null;
+  }
+
+  @Nested
+  class Measured {
+
+    @PerformanceTest(warmupIterations = 2, iterations = 3)
+    void measured(LatencyReporter latency, ThroughputReporter throughput) {
+      measured.add(latency);
+      long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(20);
+      long start;
+      while ((start = System.nanoTime()) < end) {
+        latency.onDiff(System.nanoTime() - start);
+        throughput.onMessage(1, 128);
+      }
+    }
+
+    @PerformanceTest(warmupIterations = 0, iterations = 1, name = "other")
+    void other(LatencyReporter latency) {
+      other.add(latency);
+      latency.onDiff(1000);
+    }
+  }
+
+  @Nested
+  class Published {
+
+    @PerformanceTest(warmupIterations = 2, iterations = 3, name = "published")
+    void published(LatencyReporter latency) throws Exception {
+      if (publishedInvocations.getAndIncrement() < 2) {
+        latency.onDiff(WARMUP_LATENCY);
+        return;
+      }
+      long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+      while (System.nanoTime() < end) {
+        latency.onDiff(1000);
+        Thread.sleep(1);
+      }
+    }
+  }
+}
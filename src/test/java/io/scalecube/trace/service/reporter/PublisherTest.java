@@ -0,0 +1,93 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import io.scalecube.trace.TraceReporter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PublisherTest {
+
+  private final BlockingQueue<String> requests = new LinkedBlockingQueue<>();
+  private HttpServer server;
+  private PublisherContext context;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/traces",
+        exchange -> {
+          InputStream body = exchange.getRequestBody();
+          if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            body = new GZIPInputStream(body);
+          }
+          requests.add(
+              exchange.getRequestHeaders().getFirst("Transfer-Encoding") + " " + read(body));
+          exchange.sendResponseHeaders(200, -1);
+          exchange.close();
+        });
+    server.start();
+    context =
+        new PublisherContext()
+            .traceReportUrl("http://localhost:" + server.getAddress().getPort() + "/traces")
+            .owner("scalecube")
+            .repo("trace-reporter")
+            .commitId("1");
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void testPublish() throws Exception {
+    try (TraceReporter reporter = new TraceReporter()) {
+      reporter.addY("латентность", "latency", 42);
+
+      assertEquals(200, Publisher.publish(context, reporter.traces()));
+
+      String request = requests.poll(1, TimeUnit.SECONDS);
+      assertTrue(request.startsWith("null {"), request);
+      assertTrue(request.contains("\"name\":\"латентность\""), request);
+    }
+  }
+
+  @Test
+  void testPublishStreamingGzip() throws Exception {
+    try (TraceReporter reporter = new TraceReporter()) {
+      reporter.addY("латентность", "latency", 42);
+
+      assertEquals(
+          200, Publisher.publish(context.streaming(true).gzip(true), reporter.traces()));
+
+      String request = requests.poll(1, TimeUnit.SECONDS);
+      assertTrue(request.startsWith("chunked {"), request);
+      assertTrue(request.contains("\"name\":\"латентность\""), request);
+      assertTrue(request.contains("\"x\":[1],\"y\":[42.0]"), request);
+    }
+  }
+
+  private static String read(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[1024];
+    int n;
+    while ((n = in.read(buffer)) != -1) {
+      out.write(buffer, 0, n);
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,153 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import io.scalecube.trace.TraceHandle;
+import io.scalecube.trace.TraceReporter;
+import io.scalecube.trace.service.reporter.latency.HistogramLogReportingLatencyListener;
+import io.scalecube.trace.service.reporter.latency.LatencyListener;
+import io.scalecube.trace.service.reporter.latency.LatencyListenerImpl;
+import io.scalecube.trace.service.reporter.regression.Baseline;
+import io.scalecube.trace.service.reporter.regression.RegressionDetector;
+import io.scalecube.trace.service.reporter.regression.Verdict;
+import io.scalecube.trace.service.reporter.throughput.ThroughputListener;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RegressionDetectorTest {
+
+  private static final int INTERVALS = 20;
+
+  @TempDir Path directory;
+
+  private final Random random = new Random(1);
+
+  @Test
+  void testLatencyRegression() throws Exception {
+    Path log = directory.resolve("baseline.hlog");
+    try (HistogramLogReportingLatencyListener listener =
+        new HistogramLogReportingLatencyListener(log.toString())) {
+      report(listener, 1.0);
+    }
+    Baseline baseline = Baseline.load(directory);
+    assertEquals(INTERVALS, baseline.latencyIntervals().size());
+
+    RegressionDetector same = new RegressionDetector(baseline).maxLatencyIncrease(0.15);
+    report(same.latencyListener(), 1.0);
+    Verdict passed = same.verdict();
+    assertTrue(passed.passed(), passed.toString());
+    passed.assertPassed();
+
+    RegressionDetector slower = new RegressionDetector(baseline).maxLatencyIncrease(0.15);
+    report(slower.latencyListener(), 1.3);
+    Verdict failed = slower.verdict();
+    assertFalse(failed.passed());
+    assertEquals(3, failed.regressions().size());
+    AssertionError error = assertThrows(AssertionError.class, failed::assertPassed);
+    assertTrue(error.getMessage().contains("latency p99.0"), error.getMessage());
+  }
+
+  @Test
+  void testThroughputRegression() throws Exception {
+    try (TraceReporter reporter = new TraceReporter()) {
+      TraceHandle trace = reporter.series("tps", "throughput");
+      for (int i = 0; i < INTERVALS; i++) {
+        trace.add(1000 + random.nextGaussian() * 20);
+      }
+      try (OutputStream out = Files.newOutputStream(directory.resolve("baseline.json"))) {
+        Publisher.serialize(new PublisherContext(), reporter.traces(), out);
+      }
+    }
+    Baseline baseline = Baseline.load(directory.resolve("baseline.json"));
+    assertEquals(INTERVALS, baseline.series("tps").length);
+
+    RegressionDetector detector = new RegressionDetector(baseline);
+    ThroughputListener listener = detector.throughputListener("tps");
+    for (int i = 0; i < INTERVALS; i++) {
+      // 5% less is within the default threshold
+      listener.onReport(950 + random.nextGaussian() * 20, 0);
+    }
+    assertTrue(detector.verdict().passed(), detector.verdict().toString());
+
+    RegressionDetector slower = new RegressionDetector(baseline);
+    ThroughputListener slowerListener = slower.throughputListener("tps");
+    for (int i = 0; i < INTERVALS; i++) {
+      slowerListener.onReport(800 + random.nextGaussian() * 20, 0);
+    }
+    assertFalse(slower.verdict().passed(), slower.verdict().toString());
+  }
+
+  @Test
+  void testLatencyTracesRegressWhenTheyGrow() throws Exception {
+    Baseline baseline = Baseline.load(latencyTraces("baseline.json", 1.0));
+    assertEquals("latency", baseline.group("[p99.0] test"));
+
+    Baseline fasterRun = Baseline.load(latencyTraces("faster.json", 0.7));
+    Verdict faster = new RegressionDetector(baseline).verdict(fasterRun);
+    assertTrue(faster.passed(), faster.toString());
+
+    Baseline slowerRun = Baseline.load(latencyTraces("slower.json", 1.3));
+    Verdict slower = new RegressionDetector(baseline).verdict(slowerRun);
+    assertFalse(slower.passed(), slower.toString());
+    assertEquals(2, slower.regressions().size(), slower.toString());
+  }
+
+  @Test
+  void testNothingToCompare() {
+    RegressionDetector detector = new RegressionDetector(Baseline.load(directory));
+    assertThrows(IllegalStateException.class, detector::verdict);
+  }
+
+  /**
+   * Serialize the traces of a {@link LatencyListenerImpl} as they are published.
+   */
+  private Path latencyTraces(String fileName, double scale) throws Exception {
+    Path file = directory.resolve(fileName);
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/traces",
+        exchange -> {
+          try (InputStream in = exchange.getRequestBody()) {
+            Files.copy(in, file);
+          }
+          exchange.sendResponseHeaders(200, -1);
+          exchange.close();
+        });
+    server.start();
+    try {
+      String url = "http://localhost:" + server.getAddress().getPort() + "/traces";
+      LatencyListenerImpl listener =
+          new LatencyListenerImpl()
+              .publisher(c -> c.testName("test").traceReportUrl(url))
+              .percentiles(50d, 99d);
+      report(listener, scale);
+      listener.close();
+    } finally {
+      server.stop(0);
+    }
+    return file;
+  }
+
+  private void report(LatencyListener listener, double scale) {
+    for (int i = 0; i < INTERVALS; i++) {
+      Histogram histogram = new Histogram(TimeUnit.SECONDS.toNanos(10), 3);
+      for (int j = 0; j < 1000; j++) {
+        double latency = 100_000 + Math.abs(random.nextGaussian()) * 50_000;
+        histogram.recordValue((long) (latency * scale));
+      }
+      listener.onReport(histogram);
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.trace.service.reporter.latency.LatencyListener;
+import io.scalecube.trace.service.reporter.latency.LatencyReporter;
+import io.scalecube.trace.service.reporter.throughput.ThroughputListener;
+import io.scalecube.trace.service.reporter.throughput.ThroughputReporter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+class ReportingClockTest {
+
+  @Test
+  void testAlignedTicks() throws Exception {
+    List<Long> latencyTicks = new CopyOnWriteArrayList<>();
+    List<Long> throughputTicks = new CopyOnWriteArrayList<>();
+    try (ReportingClock clock = new ReportingClock(Duration.ofMillis(50))) {
+      LatencyReporter latencyReporter =
+          LatencyReporter.create(
+                  new LatencyListener() {
+                    @Override
+                    public void onReport(Histogram intervalHistogram) {
+                      throw new AssertionError("timestamp expected");
+                    }
+
+                    @Override
+                    public void onReport(long timestamp, Histogram intervalHistogram) {
+                      latencyTicks.add(timestamp);
+                    }
+
+                    @Override
+                    public void onTerminate(Histogram accumulatedHistogram) {
+                      // nothing to do here
+                    }
+
+                    @Override
+                    public void close() {
+                      // nothing to do here
+                    }
+                  })
+              .clock(clock)
+              .start();
+      ThroughputReporter throughputReporter =
+          ThroughputReporter.create(
+                  new ThroughputListener() {
+                    @Override
+                    public void onReport(double messagesPerSec, double bytesPerSec) {
+                      throw new AssertionError("timestamp expected");
+                    }
+
+                    @Override
+                    public void onReport(long timestamp, double messagesPerSec, double bytes) {
+                      throughputTicks.add(timestamp);
+                    }
+
+                    @Override
+                    public void close() {
+                      // nothing to do here
+                    }
+                  })
+              .clock(clock)
+              .start();
+
+      TimeUnit.MILLISECONDS.sleep(400);
+      latencyReporter.close();
+      throughputReporter.close();
+    }
+
+    assertTrue(latencyTicks.size() >= 3, "ticks: " + latencyTicks);
+    for (long timestamp : latencyTicks) {
+      assertEquals(0, timestamp % 50, "ticks: " + latencyTicks);
+    }
+    // a tick may fall between the registrations or between the closes of the reporters
+    List<Long> common = new ArrayList<>(latencyTicks);
+    common.retainAll(throughputTicks);
+    assertTrue(
+        common.size() >= Math.min(latencyTicks.size(), throughputTicks.size()) - 1,
+        latencyTicks + " " + throughputTicks);
+  }
+}
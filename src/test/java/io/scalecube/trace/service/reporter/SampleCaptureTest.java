@@ -0,0 +1,82 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.scalecube.trace.service.reporter.capture.SampleCapture;
+import io.scalecube.trace.service.reporter.capture.SampleCaptureReader;
+import io.scalecube.trace.service.reporter.latency.LatencyReporter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SampleCaptureTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void testLastSamplesAreKept() throws Exception {
+    Path file = directory.resolve("samples.dat");
+    try (SampleCapture capture = new SampleCapture(file, 500);
+        LatencyReporter reporter = LatencyReporter.create().capture(capture).start()) {
+      for (int i = 1; i <= 1000; i++) {
+        reporter.onDiff(i);
+      }
+    }
+
+    try (SampleCaptureReader reader = new SampleCaptureReader(file)) {
+      assertEquals(1000, reader.position());
+      assertEquals(0, reader.droppedSamples());
+      List<Long> values = new ArrayList<>();
+      long[] lastTimestamp = {0};
+      reader.forEach(
+          (epochNanos, value) -> {
+            values.add(value);
+            assertEquals(true, epochNanos >= lastTimestamp[0]);
+            lastTimestamp[0] = epochNanos;
+          });
+      assertEquals(500, values.size());
+      for (int i = 0; i < 500; i++) {
+        assertEquals(501L + i, values.get(i));
+      }
+
+      Path csv = directory.resolve("samples.csv");
+      assertEquals(500, reader.exportCsv(csv.toString(), 0, Long.MAX_VALUE));
+      List<String> lines = Files.readAllLines(csv);
+      assertEquals(501, lines.size());
+      assertEquals("timestamp,value", lines.get(0));
+      assertEquals(true, lines.get(500).endsWith(",1000"));
+    }
+  }
+
+  @Test
+  void testRetention() throws Exception {
+    Path file = directory.resolve("samples.dat");
+    try (SampleCapture capture = new SampleCapture(file, 1000, Duration.ofMillis(200))) {
+      capture.record(1);
+      Thread.sleep(500);
+      capture.record(2);
+      capture.record(3);
+    }
+
+    try (SampleCaptureReader reader = new SampleCaptureReader(file)) {
+      List<Long> values = new ArrayList<>();
+      reader.forEach((epochNanos, value) -> values.add(value));
+      assertEquals(3, reader.position());
+      assertEquals(2, values.size());
+      assertEquals(2L, values.get(0));
+    }
+  }
+
+  @Test
+  void testCapacityFitsOneBuffer() {
+    Path file = directory.resolve("samples.dat");
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new SampleCapture(file, SampleCapture.MAX_CAPACITY + 1));
+  }
+}
@@ -0,0 +1,86 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.trace.service.reporter.counters.CountersSampler;
+import io.scalecube.trace.service.reporter.counters.SharedCounters;
+import io.scalecube.trace.service.reporter.throughput.ThroughputReporter;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SharedCountersTest {
+
+  @Test
+  void testSampleCounters(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("counters.dat");
+    try (SharedCounters counters = SharedCounters.create(file, 16);
+        CountersSampler sampler = new CountersSampler(file)) {
+      try (ThroughputReporter reporter =
+          ThroughputReporter.create().sharedCounters(counters, "echo")) {
+        reporter.onMessage(1, 100);
+        reporter.onMessage(2, 200);
+
+        assertEquals(3, sampler.value("echo messages"));
+        assertEquals(300, sampler.value("echo bytes"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sampler.sample(new PrintStream(out, true, "UTF-8"));
+        String sample = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(sample.contains("echo messages: total 3"), sample);
+      }
+      // closing the reporter frees its counters
+      assertEquals(-1, sampler.value("echo messages"));
+    }
+  }
+
+  @Test
+  void testCloseCountersBeforeReporter(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("counters.dat");
+    SharedCounters counters = SharedCounters.create(file, 16);
+    try (ThroughputReporter reporter =
+        ThroughputReporter.create().sharedCounters(counters, "echo")) {
+      counters.close();
+      assertThrows(
+          IllegalStateException.class,
+          () -> counters.newCounter("echo bytes", SharedCounters.BYTES_TYPE_ID));
+      // the file is still mapped for the counters of the reporter
+      reporter.onMessage(1, 100);
+      try (CountersSampler sampler = new CountersSampler(file)) {
+        assertEquals(1, sampler.value("echo messages"));
+      }
+    }
+    try (CountersSampler sampler = new CountersSampler(file)) {
+      assertEquals(-1, sampler.value("echo messages"));
+    }
+  }
+
+  @Test
+  void testOpenWaitsForCreate(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("counters.dat");
+    // created, but the header isn't written yet
+    Files.write(file, new byte[SharedCounters.HEADER_LENGTH]);
+    CompletableFuture<SharedCounters> opened =
+        CompletableFuture.supplyAsync(() -> SharedCounters.open(file));
+    TimeUnit.MILLISECONDS.sleep(100);
+    assertFalse(opened.isDone());
+
+    try (SharedCounters counters = SharedCounters.create(file, 16);
+        SharedCounters reader = opened.get(5, TimeUnit.SECONDS)) {
+      counters.newCounter("echo messages", SharedCounters.MESSAGES_TYPE_ID).set(3);
+      assertEquals(3, reader.reader().getCounterValue(0));
+      assertThrows(
+          IllegalStateException.class,
+          () -> reader.newCounter("echo bytes", SharedCounters.BYTES_TYPE_ID));
+    }
+  }
+}
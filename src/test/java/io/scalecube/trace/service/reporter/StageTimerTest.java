@@ -0,0 +1,113 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.trace.service.reporter.latency.LatencyListener;
+import io.scalecube.trace.service.reporter.latency.LatencyReporter;
+import io.scalecube.trace.service.reporter.latency.StageTimer;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+class StageTimerTest {
+
+  private static final int DECODE = 0;
+  private static final int EXECUTE = 1;
+  private static final int SAMPLES = 1_000;
+
+  @Test
+  void testStagesAreReportedAfterTotal() throws Exception {
+    AtomicLong reports = new AtomicLong();
+    LongAdder total = new LongAdder();
+    Map<String, LongAdder> stages = new ConcurrentHashMap<>();
+    Map<String, Long> maxValues = new ConcurrentHashMap<>();
+    LatencyListener listener =
+        new LatencyListener() {
+          @Override
+          public void onReport(Histogram intervalHistogram) {
+            total.add(intervalHistogram.getTotalCount());
+            reports.incrementAndGet();
+          }
+
+          @Override
+          public void onStageReport(String stage, Histogram intervalHistogram) {
+            long count = intervalHistogram.getTotalCount();
+            stages.computeIfAbsent(stage, s -> new LongAdder()).add(count);
+            maxValues.merge(stage, intervalHistogram.getMaxValue(), Math::max);
+          }
+
+          @Override
+          public void onTerminate(Histogram accumulatedHistogram) {
+            // not needed
+          }
+
+          @Override
+          public void close() {
+            // no resources
+          }
+        };
+
+    try (ReportingClock clock = new ReportingClock(Duration.ofMillis(20));
+        LatencyReporter reporter =
+            LatencyReporter.create(listener).stages("decode", "execute").clock(clock)) {
+      reporter.start();
+      // the first tick finishes the warmup and discards the samples recorded before it
+      while (reports.get() == 0) {
+        Thread.sleep(10);
+      }
+
+      StageTimer first = reporter.begin();
+      for (int i = 0; i < SAMPLES; i++) {
+        StageTimer timer = reporter.begin();
+        assertSame(first, timer);
+        timer.mark(DECODE);
+        long deadline = System.nanoTime() + 10_000;
+        while (System.nanoTime() < deadline) {
+          // busy execute stage
+        }
+        timer.mark(EXECUTE);
+        timer.end();
+      }
+
+      long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+      // stages of an interval are reported right after its total
+      while (stageCount(stages, "execute") < SAMPLES && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(SAMPLES, total.sum());
+      assertEquals(SAMPLES, stages.get("decode").sum());
+      assertEquals(SAMPLES, stages.get("execute").sum());
+      assertTrue(maxValues.get("execute") >= 10_000);
+    }
+  }
+
+  @Test
+  void testClosedReporterIsCollectable() throws Exception {
+    LatencyReporter reporter = LatencyReporter.create().stages("decode");
+    // this thread outlives the reporter and keeps its timer in a thread local
+    reporter.begin().mark(DECODE).end();
+    reporter.close();
+    WeakReference<LatencyReporter> ref = new WeakReference<>(reporter);
+    reporter = null;
+
+    long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+    while (ref.get() != null && System.nanoTime() < deadline) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertNull(ref.get());
+  }
+
+  private static long stageCount(Map<String, LongAdder> stages, String stage) {
+    LongAdder count = stages.get(stage);
+    return count != null ? count.sum() : 0;
+  }
+}
@@ -0,0 +1,85 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.trace.service.reporter.latency.LatencyReporter;
+import io.scalecube.trace.service.reporter.throughput.ThroughputListener;
+import io.scalecube.trace.service.reporter.throughput.ThroughputReporter;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SteadyStateDetectorTest {
+
+  @Test
+  void testConvergence() {
+    SteadyStateDetector detector =
+        new SteadyStateDetector().window(3).maxCoefficientOfVariation(0.05);
+    double[] values = {100, 10, 200, 50, 100, 101, 99, 100};
+    int steadyAt = -1;
+    for (int i = 0; i < values.length && steadyAt < 0; i++) {
+      if (detector.onInterval(values[i])) {
+        steadyAt = i;
+      } else {
+        assertNull(detector.warmupDuration());
+      }
+    }
+    assertEquals(6, steadyAt);
+    assertNotNull(detector.warmupDuration());
+    assertFalse(detector.timedOut());
+    assertTrue(detector.coefficientOfVariation() < 0.05);
+  }
+
+  @Test
+  void testTimeout() {
+    SteadyStateDetector detector = new SteadyStateDetector().maxWarmup(Duration.ZERO);
+    assertTrue(detector.onInterval(1));
+    assertTrue(detector.timedOut());
+  }
+
+  @Test
+  void testWarmupSettingsAreKept() {
+    try (LatencyReporter reporter =
+        LatencyReporter.create().warmupIterations(3).warmupTime(Duration.ofMillis(10))) {
+      assertEquals(Duration.ofMillis(30), reporter.reportDelay);
+      reporter.warmupIterations(5);
+      assertEquals(Duration.ofMillis(50), reporter.reportDelay);
+    }
+  }
+
+  @Test
+  void testAdaptiveWarmup() throws Exception {
+    AtomicInteger reports = new AtomicInteger();
+    ThroughputListener listener =
+        new ThroughputListener() {
+          @Override
+          public void onReport(double messagesPerSec, double bytesPerSec) {
+            reports.incrementAndGet();
+          }
+
+          @Override
+          public void close() {
+            // no resources
+          }
+        };
+    try (ReportingClock clock = new ReportingClock(Duration.ofMillis(20));
+        ThroughputReporter reporter =
+            ThroughputReporter.create(listener)
+                .clock(clock)
+                .adaptiveWarmup(
+                    new SteadyStateDetector().window(3).maxCoefficientOfVariation(0.5))) {
+      reporter.start();
+      long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+      while (reports.get() < 3 && System.nanoTime() < deadline) {
+        reporter.onMessage(1, 1);
+        Thread.sleep(1);
+      }
+      assertNotNull(reporter.warmupDuration());
+      assertTrue(reports.get() >= 3);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.scalecube.trace.service.reporter.latency.LatencyListener;
+import io.scalecube.trace.service.reporter.latency.LatencyReporter;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+class StripedLatencyReporterTest {
+
+  private static final int THREADS = 8;
+  private static final int SAMPLES = 10_000;
+
+  @Test
+  void testThreadsComeAndGo() throws Exception {
+    AtomicLong reported = new AtomicLong();
+    AtomicLong reports = new AtomicLong();
+    LatencyListener listener =
+        new LatencyListener() {
+          @Override
+          public void onReport(Histogram intervalHistogram) {
+            reported.addAndGet(intervalHistogram.getTotalCount());
+            reports.incrementAndGet();
+          }
+
+          @Override
+          public void onTerminate(Histogram accumulatedHistogram) {
+            // not needed
+          }
+
+          @Override
+          public void close() {
+            // no resources
+          }
+        };
+
+    try (ReportingClock clock = new ReportingClock(Duration.ofMillis(20));
+        LatencyReporter reporter = LatencyReporter.create(listener).striped().clock(clock)) {
+      reporter.start();
+      // the first tick finishes the warmup and discards the samples recorded before it
+      long warmupDeadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+      while (reports.get() == 0 && System.nanoTime() < warmupDeadline) {
+        Thread.sleep(10);
+      }
+      // two generations of threads, the first one dies before the second one starts
+      for (int generation = 0; generation < 2; generation++) {
+        Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+          threads[i] =
+              new Thread(
+                  () -> {
+                    for (int j = 1; j <= SAMPLES; j++) {
+                      reporter.onDiff(j * 1000L);
+                    }
+                  });
+          threads[i].start();
+        }
+        for (Thread thread : threads) {
+          thread.join();
+        }
+      }
+
+      long expected = 2L * THREADS * SAMPLES;
+      long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+      while (reported.get() < expected && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(expected, reported.get());
+    }
+  }
+
+  @Test
+  void testClosedRecorderIsCollectable() throws Exception {
+    LatencyReporter reporter = LatencyReporter.create().striped();
+    // this thread outlives the reporter and keeps its stripe in a thread local
+    reporter.onDiff(1000L);
+    reporter.close();
+    Field histogram = LatencyReporter.class.getDeclaredField("histogram");
+    histogram.setAccessible(true);
+    WeakReference<Object> ref = new WeakReference<>(histogram.get(reporter));
+    reporter = null;
+
+    long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+    while (ref.get() != null && System.nanoTime() < deadline) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertNull(ref.get());
+  }
+}
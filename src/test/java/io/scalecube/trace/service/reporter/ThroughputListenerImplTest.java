@@ -0,0 +1,151 @@
+package io.scalecube.trace.service.reporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.scalecube.trace.service.reporter.throughput.ThroughputListenerImpl;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ThroughputListenerImplTest {
+
+  private final BlockingQueue<String> requests = new LinkedBlockingQueue<>();
+  private final AtomicInteger failures = new AtomicInteger();
+  private HttpServer server;
+  private String url;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/traces",
+        exchange -> {
+          String body = read(exchange.getRequestBody());
+          int responseCode = failures.getAndDecrement() > 0 ? 503 : 200;
+          if (responseCode == 200) {
+            requests.add(body);
+          }
+          exchange.sendResponseHeaders(responseCode, -1);
+          exchange.close();
+        });
+    server.start();
+    url = "http://localhost:" + server.getAddress().getPort() + "/traces";
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void testDeltaPublishing() throws Exception {
+    ThroughputListenerImpl listener =
+        new ThroughputListenerImpl()
+            .publisher(
+                c ->
+                    c.traceReportUrl(url)
+                        .testName("tps")
+                        .retries(0)
+                        .publishInterval(Duration.ofHours(1)));
+
+    listener.onReport(10, 0);
+    listener.flush().block();
+    assertTrue(requests.poll(1, TimeUnit.SECONDS).contains("\"x\":[1],\"y\":[10.0]"));
+
+    failures.set(1);
+    listener.onReport(20, 0);
+    listener.onReport(30, 0);
+    try {
+      listener.flush().block();
+    } catch (Exception expected) {
+      // points stay pending until published
+    }
+    listener.onReport(40, 0);
+    listener.flush().block();
+    assertTrue(
+        requests.poll(1, TimeUnit.SECONDS).contains("\"x\":[2,3,4],\"y\":[20.0,30.0,40.0]"));
+
+    assertNull(listener.flush().block());
+    listener.close();
+    assertEquals(0, requests.size());
+  }
+
+  @Test
+  void testCloneAfterReport() throws Exception {
+    ThroughputListenerImpl listener =
+        new ThroughputListenerImpl().publisher(c -> c.traceReportUrl(url).testName("tps"));
+    listener.onReport(10, 0);
+    // the clone shares the traces, but reports into its own series
+    ThroughputListenerImpl other = listener.publisher(c -> c.testName("other"));
+    other.onReport(20, 0);
+    listener.close();
+
+    String request = requests.poll(1, TimeUnit.SECONDS);
+    assertTrue(request.contains("\"name\":\"other\""), request);
+    assertTrue(request.contains("\"y\":[10.0]"), request);
+    assertTrue(request.contains("\"y\":[20.0]"), request);
+  }
+
+  @Test
+  void testClonesPublishEveryPointOnce() throws Exception {
+    ThroughputListenerImpl listener =
+        new ThroughputListenerImpl()
+            .publisher(c -> c.traceReportUrl(url).publishInterval(Duration.ofMillis(10)));
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      // clones share the traces and their publishing
+      ThroughputListenerImpl clone = listener.publisher(c -> c.testName("tps"));
+      Thread thread =
+          new Thread(
+              () -> {
+                for (int j = 0; j < 100; j++) {
+                  clone.onReport(1, 0);
+                  clone.flush();
+                }
+              });
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    listener.close();
+
+    ObjectMapper mapper = new ObjectMapper();
+    int points = 0;
+    String request;
+    while ((request = requests.poll()) != null) {
+      for (JsonNode trace : mapper.readTree(request).get("traces")) {
+        points += trace.get("y").size();
+      }
+    }
+    assertEquals(4 * 100, points);
+  }
+
+  private static String read(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[1024];
+    int n;
+    while ((n = in.read(buffer)) != -1) {
+      out.write(buffer, 0, n);
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
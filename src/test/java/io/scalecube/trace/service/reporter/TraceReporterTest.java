@@ -1,9 +1,27 @@
 package io.scalecube.trace.service.reporter;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.scalecube.trace.EnviromentVariables;
+import io.scalecube.trace.NumericTraceData;
+import io.scalecube.trace.TimeFormat;
+import io.scalecube.trace.TraceData;
+import io.scalecube.trace.TraceHandle;
 import io.scalecube.trace.TraceReporter;
+import io.scalecube.trace.TraceStorage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class TraceReporterTest {
 
@@ -38,4 +56,160 @@ void testFlow() throws Exception {
       Publisher.publish(traceReportUrl, owner, repo, commitId, reporter.traces());
     }
   }
+
+  @Test
+  void testNumericTrace() throws Exception {
+    try (TraceReporter reporter = new TraceReporter()) {
+      reporter.addY("latency-1", "latency", 72);
+      reporter.addY("latency-1", "latency", 63.5);
+      reporter.addY("latency-1", "latency", (Object) 45);
+
+      NumericTraceData trace =
+          (NumericTraceData) (TraceData<?, ?>) reporter.traces().iterator().next();
+      assertEquals(3, trace.size());
+      assertEquals(3, trace.xvalue(2));
+      assertEquals(45d, trace.yvalue(2));
+
+      assertEquals(
+          "{\"name\":\"latency-1\",\"group\":\"latency\",\"hovertemplate\":\"<b>%{y}</b>\","
+              + "\"x\":[1,2,3],\"y\":[72.0,63.5,45.0],\"type\":\"scatter\"}",
+          new ObjectMapper().writeValueAsString(trace));
+
+      // numeric traces take numbers on the y axis only
+      assertThrows(IllegalStateException.class, () -> reporter.addY("latency-1", "latency", "x"));
+      assertThrows(IllegalStateException.class, () -> reporter.addX("latency-1", "latency", 1));
+      assertEquals(3, trace.size());
+    }
+  }
+
+  @Test
+  void testConcurrentSeries() throws Exception {
+    final int threads = 8;
+    final int points = 10_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try (TraceReporter reporter = new TraceReporter()) {
+      CountDownLatch start = new CountDownLatch(1);
+      for (int t = 0; t < threads; t++) {
+        executor.execute(
+            () -> {
+              TraceHandle handle = reporter.series("latency-1", "latency");
+              try {
+                start.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              for (int i = 0; i < points; i++) {
+                handle.add(i);
+              }
+            });
+      }
+      start.countDown();
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+      NumericTraceData trace = reporter.series("latency-1", "latency").trace();
+      assertEquals(threads * points, trace.size());
+      for (int i = 0; i < trace.size(); i++) {
+        assertEquals(i + 1, trace.xvalue(i));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testMappedStorage(@TempDir Path dir) throws Exception {
+    final int points = 100_000;
+    NumericTraceData trace;
+    try (TraceReporter reporter = new TraceReporter(TraceStorage.mapped(dir))) {
+      TraceHandle handle = reporter.series("latency-1", "latency");
+      for (int i = 0; i < points; i++) {
+        handle.add(i);
+      }
+      trace = handle.trace();
+      assertEquals(points, trace.size());
+      assertEquals(points, trace.xvalue(points - 1));
+      assertEquals(points - 1d, trace.yvalue(points - 1));
+
+      NumericTraceData chunk = trace.drain();
+      assertEquals(0, trace.size());
+      assertEquals(points, chunk.size());
+      assertEquals(42d, chunk.yvalue(42));
+
+      handle.add(1);
+      assertEquals(
+          "{\"name\":\"latency-1\",\"group\":\"latency\",\"hovertemplate\":\"<b>%{y}</b>\","
+              + "\"x\":[100001],\"y\":[1.0],\"type\":\"scatter\"}",
+          new ObjectMapper().writeValueAsString(trace));
+      assertEquals(1, Files.list(dir).count());
+    }
+    assertEquals(0, trace.size());
+    assertFalse(Files.list(dir).findAny().isPresent());
+  }
+
+  @Test
+  void testDownsampledStorage() {
+    final int points = 86_400;
+    final int budget = 500;
+    try (TraceReporter reporter = new TraceReporter(TraceStorage.downsampled(budget))) {
+      TraceHandle handle = reporter.series("latency-1", "latency");
+      for (int i = 0; i < points; i++) {
+        handle.add(i == 12_345 ? 1_000_000 : i == 54_321 ? -1 : i % 100);
+      }
+
+      NumericTraceData trace = handle.trace();
+      assertTrue(trace.size() <= budget, "size: " + trace.size());
+      assertTrue(trace.size() > budget / 4, "size: " + trace.size());
+      boolean peak = false;
+      boolean dip = false;
+      for (int i = 0; i < trace.size(); i++) {
+        if (i > 0) {
+          assertTrue(trace.xvalue(i - 1) < trace.xvalue(i));
+        }
+        peak |= trace.yvalue(i) == 1_000_000;
+        dip |= trace.yvalue(i) == -1;
+      }
+      assertTrue(peak);
+      assertTrue(dip);
+      assertEquals(1, trace.xvalue(0));
+      assertEquals(points, trace.xvalue(trace.size() - 1));
+    }
+  }
+
+  @Test
+  void testTimeSeries() throws Exception {
+    try (TraceReporter reporter = new TraceReporter()) {
+      TraceHandle handle = reporter.timeSeries("latency-1", "latency");
+      long start = 1_620_000_000_000L;
+      long[] timestamps = new long[1000];
+      for (int i = 0; i < timestamps.length; i++) {
+        // steady ticks with some jitter and a gap
+        timestamps[i] = start + i * 1000L + (i % 7 == 0 ? 3 : 0) + (i > 500 ? 60_000 : 0);
+        handle.add(timestamps[i], i);
+      }
+
+      NumericTraceData trace = handle.trace();
+      for (int i = 0; i < timestamps.length; i++) {
+        assertEquals(timestamps[i], trace.xvalue(i));
+      }
+      assertEquals(timestamps[10], trace.xvalue(10));
+
+      NumericTraceData chunk = trace.drain();
+      handle.add(start, 1);
+      handle.add(start + 250, 2);
+      assertEquals(timestamps[999], chunk.xvalue(999));
+      assertEquals(
+          "{\"name\":\"latency-1\",\"group\":\"latency\",\"hovertemplate\":\"<b>%{y}</b>\","
+              + "\"x\":[\"2021-05-03T00:00:00Z\",\"2021-05-03T00:00:00.250Z\"],"
+              + "\"y\":[1.0,2.0],\"type\":\"scatter\"}",
+          new ObjectMapper().writeValueAsString(trace));
+      assertEquals(
+          "{\"name\":\"latency-1\",\"group\":\"latency\",\"hovertemplate\":\"<b>%{y}</b>\","
+              + "\"x\":[1620000000000,1620000000250],\"y\":[1.0,2.0],\"type\":\"scatter\"}",
+          new ObjectMapper()
+              .writer()
+              .withAttribute(TimeFormat.ATTRIBUTE, TimeFormat.EPOCH_MILLIS)
+              .writeValueAsString(trace));
+    }
+  }
 }